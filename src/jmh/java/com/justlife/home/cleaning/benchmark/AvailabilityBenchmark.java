@@ -0,0 +1,39 @@
+package com.justlife.home.cleaning.benchmark;
+
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AvailabilityBenchmark {
+
+    @Benchmark
+    public List<AvailabilityResponse> checkAvailabilityForDay(BenchmarkDataset dataset) {
+        return dataset.bookingService.checkAvailability(dataset.firstDate, null, 0);
+    }
+
+    @Benchmark
+    public List<AvailabilityResponse> checkAvailabilityForSlot(BenchmarkDataset dataset) {
+        LocalDateTime startTime = LocalDateTime.of(dataset.firstDate, BenchmarkDataset.OPENING.plusHours(2));
+        return dataset.bookingService.checkAvailability(dataset.firstDate, startTime, 2);
+    }
+
+    @Benchmark
+    public List<List<Long>> findCandidateTeams(BenchmarkDataset dataset) {
+        LocalDateTime startTime = LocalDateTime.of(dataset.firstDate, BenchmarkDataset.OPENING.plusHours(2));
+        return dataset.bookingService.findCandidateTeams(startTime, 2, BenchmarkDataset.TEAM_SIZE);
+    }
+}
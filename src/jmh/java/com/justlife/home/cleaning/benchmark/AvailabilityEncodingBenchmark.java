@@ -0,0 +1,103 @@
+package com.justlife.home.cleaning.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.justlife.home.cleaning.codec.AvailabilityBinaryCodec;
+import com.justlife.home.cleaning.codec.AvailabilityColumnsCodec;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.TimeSlots;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization time of a city-wide availability response as Jackson JSON (the default), column-oriented JSON and
+ * the varint binary encoding. Payload sizes, raw and gzipped, are printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityEncodingBenchmark {
+
+    @Param({"1000", "10000"})
+    public int professionals;
+
+    @Param({"4"})
+    public int slotsPerProfessional;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private List<AvailabilityResponse> availabilities;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Free slots of one or two hours from 08:00, with a one hour booking between them
+        availabilities = new ArrayList<>(professionals);
+        for (long id = 1; id <= professionals; id++) {
+            List<TimeSlots> slots = new ArrayList<>();
+            LocalTime start = LocalTime.of(8, 0);
+            for (int i = 0; i < slotsPerProfessional; i++) {
+                LocalTime end = start.plusMinutes(60L + (id + i) % 2 * 60);
+                slots.add(TimeSlots.builder().startTime(start).endTime(end).build());
+                start = end.plusHours(1);
+            }
+            availabilities.add(AvailabilityResponse.builder()
+                    .professionalId(id)
+                    .name("Professional " + id % 500)
+                    .availabilities(slots)
+                    .build());
+        }
+
+        System.out.printf("%n%d professionals: json %s, columns %s, binary %s%n", professionals,
+                sizes(json()), sizes(columns()), sizes(binary()));
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return objectMapper.writeValueAsBytes(availabilities);
+    }
+
+    @Benchmark
+    public byte[] columns() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            AvailabilityColumnsCodec.write(availabilities, generator);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return AvailabilityBinaryCodec.encode(availabilities);
+    }
+
+    private static String sizes(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        return payload.length + " B (gzip " + compressed.size() + " B)";
+    }
+}
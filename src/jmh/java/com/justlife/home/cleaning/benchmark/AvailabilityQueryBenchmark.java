@@ -0,0 +1,128 @@
+package com.justlife.home.cleaning.benchmark;
+
+import com.justlife.home.cleaning.availability.AvailabilityMaterializer;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.response.AvailabilityPageResponse;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability reads for a past date, which the in-memory index does not cover, so every call goes to the database.
+ * Runs with and without the composite availability indexes and prints H2's {@code EXPLAIN ANALYZE} output,
+ * including rows scanned, for each query shape. Date-only reads are answered from the materialized summaries;
+ * {@link #readFreeWindowsForDay} is the same read from the availability rows and {@link #loadAvailabilityEntities}
+ * the entity-based baseline the projections replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AvailabilityQueryBenchmark {
+    private static final LocalTime SLOT_START = LocalTime.of(13, 0);
+
+    @State(Scope.Benchmark)
+    public static class PastDay {
+        @Param({"true", "false"})
+        public boolean indexed;
+
+        LocalDate date;
+        AvailabilityRepository availabilityRepository;
+
+        /**
+         * Gives every professional a free morning, a booking at 10:00 and a free afternoon on {@link #date}.
+         */
+        @Setup(Level.Trial)
+        public void seed(BenchmarkDataset dataset) {
+            date = LocalDate.now().minusDays(1);
+            availabilityRepository = dataset.bean(AvailabilityRepository.class);
+
+            List<Object[]> rows = new ArrayList<>();
+            for (List<Long> team : dataset.teams) {
+                for (Long professionalId : team) {
+                    rows.add(row(professionalId, "AVAILABLE", BenchmarkDataset.OPENING, LocalTime.of(10, 0)));
+                    rows.add(row(professionalId, "BOOKED", LocalTime.of(10, 0), LocalTime.of(12, 0)));
+                    rows.add(row(professionalId, "AVAILABLE", LocalTime.of(12, 0), BenchmarkDataset.CLOSING));
+                }
+            }
+            dataset.jdbcTemplate.batchUpdate("INSERT INTO availability (cleaning_professional_id, date, status, start_time, end_time) VALUES (?, ?, ?, ?, ?)", rows);
+            dataset.bean(AvailabilityMaterializer.class).rebuild();
+            if (!indexed) {
+                dataset.jdbcTemplate.execute("DROP INDEX idx_availability_professional_date");
+                dataset.jdbcTemplate.execute("DROP INDEX idx_availability_date_status");
+            }
+
+            Long professionalId = dataset.teams.get(dataset.teams.size() / 2).get(0);
+            explain(dataset, "free windows on a date",
+                    "SELECT cp.id, cp.name, a.start_time, a.end_time FROM availability a JOIN cleaning_professional cp ON cp.id = a.cleaning_professional_id" +
+                            " WHERE a.date = DATE '" + date + "' AND a.status = 'AVAILABLE' ORDER BY cp.id, a.start_time");
+            explain(dataset, "professionals free during a slot",
+                    "SELECT cp.id FROM cleaning_professional cp WHERE EXISTS (SELECT 1 FROM availability a WHERE a.cleaning_professional_id = cp.id" +
+                            " AND a.date = DATE '" + date + "' AND a.status = 'AVAILABLE' AND a.start_time <= TIME '" + SLOT_START + "'" +
+                            " AND a.end_time >= TIME '" + SLOT_START.plusHours(2) + "') ORDER BY cp.id LIMIT 101");
+            explain(dataset, "one professional's day (booking writes)",
+                    "SELECT * FROM availability WHERE cleaning_professional_id IN (" + professionalId + ") AND date IN (DATE '" + date + "') ORDER BY start_time");
+        }
+
+        private Object[] row(Long professionalId, String status, LocalTime startTime, LocalTime endTime) {
+            return new Object[]{professionalId, Date.valueOf(date), status, Time.valueOf(startTime), Time.valueOf(endTime)};
+        }
+
+        private void explain(BenchmarkDataset dataset, String query, String sql) {
+            String plan = dataset.jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + sql, String.class);
+            System.out.printf("%n[%s indexes, %d professionals] %s:%n%s%n",
+                    indexed ? "with" : "without", dataset.professionals, query, plan);
+        }
+    }
+
+    @Benchmark
+    public List<AvailabilityResponse> checkAvailabilityForDay(BenchmarkDataset dataset, PastDay day) {
+        return dataset.bookingService.checkAvailability(day.date, null, 0);
+    }
+
+    @Benchmark
+    public List<AvailabilityResponse> readFreeWindowsForDay(BenchmarkDataset dataset, PastDay day) {
+        return dataset.bookingService.mapWindowsToAvailabilityResponses(day.availabilityRepository.findFreeWindows(day.date));
+    }
+
+    @Benchmark
+    public List<AvailabilityResponse> checkAvailabilityForSlot(BenchmarkDataset dataset, PastDay day) {
+        return dataset.bookingService.checkAvailability(day.date, LocalDateTime.of(day.date, SLOT_START), 2);
+    }
+
+    @Benchmark
+    public AvailabilityPageResponse checkAvailabilityPage(BenchmarkDataset dataset, PastDay day) {
+        return dataset.bookingService.checkAvailability(day.date, LocalDateTime.of(day.date, SLOT_START), 2, null, 100);
+    }
+
+    @Benchmark
+    public int loadAvailabilityEntities(PastDay day) {
+        int names = 0;
+        for (Availability availability : day.availabilityRepository.findByDateAndStatus(day.date, AvailabilityStatus.AVAILABLE)) {
+            names += availability.getCleaningProfessional().getName().length();
+        }
+        return names;
+    }
+}
@@ -0,0 +1,140 @@
+package com.justlife.home.cleaning.benchmark;
+
+import com.justlife.home.cleaning.HomeCleaningApplication;
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.service.impl.BookingServiceImpl;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context on an embedded H2 database seeded with {@link #professionals} professionals, two per vehicle,
+ * each free from {@link #OPENING} to {@link #CLOSING} on {@link #days} consecutive days starting tomorrow. Small
+ * datasets get more days so that every measurement iteration of {@code createBooking} finds a free slot.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDataset {
+    static final int TEAM_SIZE = 2;
+    static final LocalTime OPENING = LocalTime.of(8, 0);
+    static final LocalTime CLOSING = LocalTime.of(22, 0);
+    static final int HOURS_PER_DAY = CLOSING.getHour() - OPENING.getHour();
+    private static final int MIN_BOOKING_SLOTS = 50_000;
+
+    @Param({"100", "10000", "100000"})
+    public int professionals;
+
+    BookingServiceImpl bookingService;
+    List<List<Long>> teams;
+    LocalDate firstDate;
+    int days;
+
+    JdbcTemplate jdbcTemplate;
+
+    private ConfigurableApplicationContext context;
+    private AvailabilityIndex availabilityIndex;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(HomeCleaningApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + professionals,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        bookingService = context.getBean(BookingServiceImpl.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        availabilityIndex = context.getBean(AvailabilityIndex.class);
+
+        firstDate = LocalDate.now().plusDays(1);
+        int vehicles = professionals / TEAM_SIZE;
+        days = Math.max(1, (MIN_BOOKING_SLOTS + vehicles * HOURS_PER_DAY - 1) / (vehicles * HOURS_PER_DAY));
+        seedProfessionals(vehicles);
+        resetAvailability();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Drops all bookings and makes every professional free again on every seeded day.
+     */
+    void resetAvailability() {
+        jdbcTemplate.update("DELETE FROM booking_professional");
+        jdbcTemplate.update("DELETE FROM booking");
+        jdbcTemplate.update("DELETE FROM availability");
+        List<Object[]> availabilities = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            Date date = Date.valueOf(firstDate.plusDays(day));
+            for (List<Long> team : teams) {
+                for (Long professionalId : team) {
+                    availabilities.add(new Object[]{professionalId, date, "AVAILABLE", Time.valueOf(OPENING), Time.valueOf(CLOSING)});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO availability (cleaning_professional_id, date, status, start_time, end_time) VALUES (?, ?, ?, ?, ?)", availabilities);
+        availabilityIndex.rebuild();
+    }
+
+    /**
+     * Number of distinct one-hour slots {@code createBooking} can book for whole teams before a reset.
+     */
+    int bookingSlots() {
+        return teams.size() * days * HOURS_PER_DAY;
+    }
+
+    /**
+     * Start of the {@code slot}-th bookable hour, cycling through teams first, then hours, then days.
+     */
+    LocalDateTime slotStart(int slot) {
+        int hourAndDay = slot / teams.size();
+        return LocalDateTime.of(firstDate.plusDays(hourAndDay / HOURS_PER_DAY), OPENING.plusHours(hourAndDay % HOURS_PER_DAY));
+    }
+
+    List<Long> slotTeam(int slot) {
+        return teams.get(slot % teams.size());
+    }
+
+    private void seedProfessionals(int vehicles) {
+        List<Object[]> vehicleRows = new ArrayList<>();
+        for (int v = 0; v < vehicles; v++) {
+            vehicleRows.add(new Object[]{"Vehicle " + v});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO vehicle (vehicle_number) VALUES (?)", vehicleRows);
+
+        List<Long> vehicleIds = jdbcTemplate.queryForList("SELECT id FROM vehicle ORDER BY id", Long.class);
+        List<Object[]> professionalRows = new ArrayList<>();
+        for (int p = 0; p < vehicles * TEAM_SIZE; p++) {
+            professionalRows.add(new Object[]{"Professional " + p, vehicleIds.get(p / TEAM_SIZE)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cleaning_professional (name, vehicle_id) VALUES (?, ?)", professionalRows);
+
+        teams = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, vehicle_id FROM cleaning_professional ORDER BY vehicle_id, id", rs -> {
+            if (teams.isEmpty() || teams.get(teams.size() - 1).size() == TEAM_SIZE) {
+                teams.add(new ArrayList<>(TEAM_SIZE));
+            }
+            teams.get(teams.size() - 1).add(rs.getLong("id"));
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.justlife.home.cleaning.benchmark;
+
+import com.justlife.home.cleaning.response.BookingResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookingBenchmark {
+    private static final int UPDATED_BOOKINGS = 1_000;
+
+    /**
+     * Hands out free slots in order and frees them all again before every iteration.
+     */
+    @State(Scope.Benchmark)
+    public static class FreeSlots {
+        int next;
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkDataset dataset) {
+            dataset.resetAvailability();
+            next = 0;
+        }
+    }
+
+    /**
+     * Bookings that {@code updateBooking} moves back and forth between the first and a later hour of the first day.
+     */
+    @State(Scope.Benchmark)
+    public static class ExistingBookings {
+        long[] ids;
+        boolean[] moved;
+        int next;
+
+        @Setup(Level.Trial)
+        public void create(BenchmarkDataset dataset) {
+            ids = new long[Math.min(UPDATED_BOOKINGS, dataset.teams.size())];
+            moved = new boolean[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = dataset.bookingService.createBooking(dataset.slotStart(i), 1, dataset.slotTeam(i)).getId();
+            }
+        }
+    }
+
+    @Benchmark
+    public BookingResponse createBooking(BenchmarkDataset dataset, FreeSlots slots) {
+        int slot = slots.next++;
+        if (slot >= dataset.bookingSlots()) {
+            throw new IllegalStateException("Ran out of free slots after " + slot + " bookings, seed more days");
+        }
+        return dataset.bookingService.createBooking(dataset.slotStart(slot), 1, dataset.slotTeam(slot));
+    }
+
+    @Benchmark
+    public BookingResponse updateBooking(BenchmarkDataset dataset, ExistingBookings bookings) {
+        int i = bookings.next++ % bookings.ids.length;
+        LocalDateTime startTime = dataset.slotStart(i);
+        if (!bookings.moved[i]) {
+            startTime = startTime.plusHours(BenchmarkDataset.HOURS_PER_DAY / 2);
+        }
+        bookings.moved[i] = !bookings.moved[i];
+        return dataset.bookingService.updateBooking(bookings.ids[i], startTime, 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.justlife.home.cleaning.benchmark;
+
+import com.justlife.home.cleaning.model.Booking;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.repository.projection.ProfessionalWindow;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.BookingResponse;
+import com.justlife.home.cleaning.service.impl.BookingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projection and entity to DTO mapping on its own, without a database. Windows are mapped for
+ * {@value #PROFESSIONALS} professionals at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    private static final int PROFESSIONALS = 100;
+
+    @Param({"1", "8"})
+    public int bookingsPerDay;
+
+    private final BookingServiceImpl bookingService = new BookingServiceImpl(null, null, null, null, null, null, null, null);
+    private List<ProfessionalWindow> windows;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        // Free half hours with a booked half hour in between, from 08:00
+        windows = new ArrayList<>();
+        for (long id = 1; id <= PROFESSIONALS; id++) {
+            for (int i = 0; i <= bookingsPerDay; i++) {
+                windows.add(new ProfessionalWindow(id, "Professional " + id, LocalTime.of(8, 0).plusMinutes(60L * i), LocalTime.of(8, 30).plusMinutes(60L * i)));
+            }
+        }
+
+        List<CleaningProfessional> team = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            CleaningProfessional member = new CleaningProfessional();
+            member.setId(id);
+            team.add(member);
+        }
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setStartDateTime(LocalDateTime.of(date, LocalTime.of(9, 0)));
+        booking.setEndDateTime(LocalDateTime.of(date, LocalTime.of(11, 0)));
+        booking.setCleaningProfessionals(team);
+    }
+
+    @Benchmark
+    public List<AvailabilityResponse> mapWindowsToAvailabilityResponses() {
+        return bookingService.mapWindowsToAvailabilityResponses(windows);
+    }
+
+    @Benchmark
+    public BookingResponse mapToBookingResponse() {
+        return bookingService.mapToBookingResponse(booking, 1L);
+    }
+}
@@ -0,0 +1,63 @@
+package com.justlife.home.cleaning.benchmark;
+
+import com.justlife.home.cleaning.request.WorkingHoursTemplate;
+import com.justlife.home.cleaning.response.ScheduleGenerationResponse;
+import com.justlife.home.cleaning.service.ScheduleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full generation of {@value #DAYS} days of working hours for every professional, starting after the days the
+ * dataset seeds. Each iteration starts from an empty range; the printed response carries the rows/s throughput.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ScheduleGenerationBenchmark {
+    private static final int DAYS = 90;
+
+    @State(Scope.Benchmark)
+    public static class EmptyRange {
+        ScheduleService scheduleService;
+        LocalDate from;
+        List<WorkingHoursTemplate> templates;
+
+        @Setup(Level.Iteration)
+        public void clear(BenchmarkDataset dataset) {
+            scheduleService = dataset.bean(ScheduleService.class);
+            from = dataset.firstDate.plusDays(dataset.days);
+            dataset.jdbcTemplate.update("DELETE FROM availability WHERE date >= ?", Date.valueOf(from));
+
+            WorkingHoursTemplate template = new WorkingHoursTemplate();
+            template.setStartTime(BenchmarkDataset.OPENING);
+            template.setEndTime(BenchmarkDataset.CLOSING);
+            template.setDaysOff(Set.of(DayOfWeek.FRIDAY));
+            templates = List.of(template);
+        }
+    }
+
+    @Benchmark
+    public ScheduleGenerationResponse generate(EmptyRange range) {
+        ScheduleGenerationResponse response = range.scheduleService.generate(range.from, range.from.plusDays(DAYS - 1), range.templates);
+        System.out.println(response);
+        return response;
+    }
+}
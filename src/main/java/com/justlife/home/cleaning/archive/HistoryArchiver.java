@@ -0,0 +1,180 @@
+package com.justlife.home.cleaning.archive;
+
+import com.justlife.home.cleaning.availability.AvailabilityCache;
+import com.justlife.home.cleaning.repository.ArchiveJdbcRepository;
+import com.justlife.home.cleaning.repository.PartitionJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.justlife.home.cleaning.repository.PartitionJdbcRepository.MAX_PARTITION;
+import static com.justlife.home.cleaning.repository.PartitionJdbcRepository.partitionName;
+
+/**
+ * Keeps only recent months in the availability and booking tables. A month that ended more than
+ * {@code archive.availability.retention} or {@code archive.booking.retention} ago is copied to the {@code *_archive}
+ * tables and removed: by dropping its partition where the table is partitioned by month (see
+ * {@code db/mysql/partition-history.sql}), by a ranged {@code DELETE} otherwise. Months go oldest first, one
+ * transaction each, so an interrupted run resumes where it stopped. Each run also adds the partitions of the next
+ * {@code archive.partitions-ahead} months, so new dates never pile up in the catch-all partition.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "archive.enabled", havingValue = "true")
+public class HistoryArchiver {
+    static final String AVAILABILITY = "availability";
+    static final String BOOKING = "booking";
+
+    private final ArchiveJdbcRepository archiveJdbcRepository;
+    private final PartitionJdbcRepository partitionJdbcRepository;
+    private final AvailabilityCache availabilityCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration availabilityRetention;
+    private final Duration bookingRetention;
+    private final int partitionsAhead;
+
+    public HistoryArchiver(ArchiveJdbcRepository archiveJdbcRepository,
+                           PartitionJdbcRepository partitionJdbcRepository,
+                           AvailabilityCache availabilityCache,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${archive.availability.retention:90d}") Duration availabilityRetention,
+                           @Value("${archive.booking.retention:365d}") Duration bookingRetention,
+                           @Value("${archive.partitions-ahead:3}") int partitionsAhead) {
+        this.archiveJdbcRepository = archiveJdbcRepository;
+        this.partitionJdbcRepository = partitionJdbcRepository;
+        this.availabilityCache = availabilityCache;
+        this.transactionTemplate = transactionTemplate;
+        this.availabilityRetention = availabilityRetention;
+        this.bookingRetention = bookingRetention;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    @Scheduled(initialDelayString = "${archive.interval:PT1H}", fixedDelayString = "${archive.interval:PT1H}")
+    public void run() {
+        try {
+            archive(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("History archiving stopped, will retry: {}", e.getMessage());
+        }
+    }
+
+    public void archive(LocalDateTime now) {
+        int availability = archiveAvailability(YearMonth.from(now.minus(availabilityRetention)));
+        int bookings = archiveBookings(YearMonth.from(now.minus(bookingRetention)));
+        YearMonth currentMonth = YearMonth.from(now);
+        addPartitions(AVAILABILITY, currentMonth, currentMonth.plusMonths(partitionsAhead));
+        addPartitions(BOOKING, currentMonth, currentMonth.plusMonths(partitionsAhead));
+        if (availability > 0 || bookings > 0) {
+            log.info("Archived {} availability rows and {} bookings", availability, bookings);
+        }
+    }
+
+    /**
+     * Archives every month before {@code before}. Archived dates leave the availability cache and their ETags change.
+     *
+     * @return number of availability rows archived
+     */
+    public int archiveAvailability(YearMonth before) {
+        List<String> partitions = partitionJdbcRepository.findPartitions(AVAILABILITY);
+        int archived = 0;
+        boolean removed = false;
+        for (YearMonth month = firstMonth(archiveJdbcRepository.findOldestAvailabilityDate(), partitions);
+             month != null && month.isBefore(before); month = month.plusMonths(1)) {
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            boolean dropPartition = partitions.contains(partitionName(month));
+            int copied = transactionTemplate.execute(status -> {
+                int rows = archiveJdbcRepository.copyAvailability(from, to);
+                if (dropPartition) {
+                    archiveJdbcRepository.deleteSummaries(from, to);
+                } else {
+                    archiveJdbcRepository.deleteAvailability(from, to);
+                }
+                return rows;
+            });
+            if (dropPartition) {
+                partitionJdbcRepository.dropPartition(AVAILABILITY, month);
+            }
+            archived += copied;
+            removed |= copied > 0 || dropPartition;
+        }
+        if (removed) {
+            availabilityCache.evictAll();
+        }
+        return archived;
+    }
+
+    /**
+     * Archives every booking starting before {@code before}, with its professional assignments.
+     *
+     * @return number of bookings archived
+     */
+    public int archiveBookings(YearMonth before) {
+        List<String> partitions = partitionJdbcRepository.findPartitions(BOOKING);
+        int archived = 0;
+        for (YearMonth month = firstMonth(archiveJdbcRepository.findOldestBookingDate(), partitions);
+             month != null && month.isBefore(before); month = month.plusMonths(1)) {
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            boolean dropPartition = partitions.contains(partitionName(month));
+            archived += transactionTemplate.execute(status -> {
+                int rows = archiveJdbcRepository.copyBookings(from, to);
+                if (dropPartition) {
+                    archiveJdbcRepository.deleteBookingAssignments(from, to);
+                } else {
+                    archiveJdbcRepository.deleteBookings(from, to);
+                }
+                return rows;
+            });
+            if (dropPartition) {
+                partitionJdbcRepository.dropPartition(BOOKING, month);
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Splits the months after the newest month partition, up to {@code lastMonth}, off the catch-all partition of a
+     * partitioned table. The partitioning script already created the months up to a few ahead, so {@code pmax} holds
+     * next to nothing when it is split. A table partitioned with {@code pmax} alone starts at {@code currentMonth},
+     * whose partition then also holds every older row.
+     */
+    private void addPartitions(String table, YearMonth currentMonth, YearMonth lastMonth) {
+        List<String> partitions = partitionJdbcRepository.findPartitions(table);
+        if (!partitions.contains(MAX_PARTITION)) {
+            return;
+        }
+        YearMonth newest = monthsOf(partitions).max(YearMonth::compareTo).orElse(null);
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = newest == null ? currentMonth : newest.plusMonths(1); !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        if (!months.isEmpty()) {
+            partitionJdbcRepository.addPartitions(table, months);
+            log.info("Added {} monthly partitions to {}, up to {}", months.size(), table, lastMonth);
+        }
+    }
+
+    private static YearMonth firstMonth(LocalDate oldestRow, List<String> partitions) {
+        return Stream.concat(Stream.ofNullable(oldestRow).map(YearMonth::from), monthsOf(partitions))
+                .min(YearMonth::compareTo)
+                .orElse(null);
+    }
+
+    private static Stream<YearMonth> monthsOf(List<String> partitions) {
+        return partitions.stream()
+                .filter(name -> name.matches("p\\d{6}"))
+                .map(name -> YearMonth.of(Integer.parseInt(name.substring(1, 5)), Integer.parseInt(name.substring(5))));
+    }
+}
@@ -0,0 +1,76 @@
+package com.justlife.home.cleaning.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.event.AvailabilityReloadedEvent;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of availability results keyed by (date, startTime, duration), evicted per date once a
+ * booking that changed that date commits. Keys also carry a per-date generation that eviction bumps, so a result
+ * computed from pre-commit state and stored after the eviction is never served again.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics tagged {@code cache=availability}.
+ */
+@Component
+@Slf4j
+public class AvailabilityCache {
+    private final Cache<Key, List<AvailabilityResponse>> cache;
+    private final Map<LocalDate, Long> generations = new ConcurrentHashMap<>();
+
+    public AvailabilityCache(MeterRegistry meterRegistry,
+                             @Value("${availability.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${availability.cache.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "availability");
+    }
+
+    public List<AvailabilityResponse> get(LocalDate date, LocalDateTime startTime, int duration,
+                                          Supplier<List<AvailabilityResponse>> loader) {
+        Key key = new Key(date, startTime, startTime == null ? 0 : duration, generations.getOrDefault(date, 0L));
+        return cache.get(key, k -> List.copyOf(loader.get()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        evict(event.date());
+    }
+
+    @EventListener
+    public void onAvailabilityReloaded(AvailabilityReloadedEvent event) {
+        event.professionalIds().keySet().forEach(this::evict);
+    }
+
+    public void evict(LocalDate date) {
+        generations.merge(date, 1L, Long::sum);
+        cache.asMap().keySet().removeIf(key -> key.date().equals(date));
+        log.debug("Evicted cached availability for {}", date);
+    }
+
+    public void evictAll() {
+        generations.replaceAll((date, generation) -> generation + 1);
+        cache.invalidateAll();
+    }
+
+    private record Key(LocalDate date, LocalDateTime startTime, int duration, long generation) {
+    }
+}
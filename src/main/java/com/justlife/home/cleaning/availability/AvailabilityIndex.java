@@ -0,0 +1,465 @@
+package com.justlife.home.cleaning.availability;
+
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.event.AvailabilityReloadedEvent;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.projection.AvailabilityWindow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * In-process view of upcoming availability, one {@link DaySchedule} per date. Loaded from the
+ * {@code availability} table on startup and kept current from {@link AvailabilityChangedEvent}s once the
+ * booking transaction commits, so availability reads never go to the database. Changes this instance has no event
+ * for, made by other instances or written outside the booking flow, show up on the next reload, at most
+ * {@code availability.index.refresh-interval} later, or when {@link AvailabilityVersions} sees the date's version
+ * move, and are announced as an {@link AvailabilityReloadedEvent}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AvailabilityIndex {
+    private final CleaningProfessionalRepository cleaningProfessionalRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Replaced whole on reload, so readers see either the previous or the new load and never a half-filled one
+    private volatile Map<Long, ProfessionalInfo> professionals = new ConcurrentHashMap<>();
+    private volatile Map<LocalDate, DaySchedule> days = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Changes committed while a reload reads the table, guarded by writeLock
+    private List<AvailabilityChangedEvent> changedDuringReload;
+    private volatile LocalDate loadedFrom;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${availability.index.refresh-interval:PT1M}", fixedDelayString = "${availability.index.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Availability index reload failed, keeping the previous load: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads every professional and all availability from today onwards, then publishes what changed. The rows are
+     * read and indexed without holding the write lock, so bookings committing meanwhile are not held up; their
+     * changes are replayed onto the new load before it replaces the current one. Reads the primary: a lagging
+     * replica would undo bookings whose changes were already applied.
+     */
+    public void rebuild() {
+        reloadLock.lock();
+        try {
+            LocalDate from = LocalDate.now();
+            long started = System.nanoTime();
+            trackChanges(new ArrayList<>());
+
+            Map<Long, ProfessionalInfo> loadedProfessionals = new HashMap<>();
+            List<AvailabilityWindow> windows = new ArrayList<>();
+            // Read-write, so the repositories' reads join it on the primary
+            transactionTemplate.executeWithoutResult(status -> {
+                cleaningProfessionalRepository.findAllSummaries().forEach(summary -> loadedProfessionals.put(summary.getId(),
+                        new ProfessionalInfo(summary.getId(), summary.getName(), summary.getVehicleId())));
+                windows.addAll(availabilityRepository.findWindowsFrom(from));
+            });
+            Map<LocalDate, DaySchedule> loadedDays = new ConcurrentHashMap<>();
+            bitmapsOf(windows).forEach((date, dayBitmaps) -> loadedDays.put(date, DaySchedule.of(dayBitmaps)));
+
+            Map<LocalDate, Set<Long>> changed;
+            writeLock.lock();
+            try {
+                // The read may predate these commits; each event carries the professional's whole day, so replaying
+                // one the read already saw changes nothing
+                for (AvailabilityChangedEvent event : changedDuringReload) {
+                    if (!event.date().isBefore(from)) {
+                        apply(event, loadedProfessionals, loadedDays);
+                    }
+                }
+                changedDuringReload = null;
+                changed = changesFrom(from, loadedProfessionals, loadedDays);
+                professionals = new ConcurrentHashMap<>(loadedProfessionals);
+                days = loadedDays;
+                loadedFrom = from;
+            } finally {
+                writeLock.unlock();
+            }
+            log.debug("Availability index loaded {} windows for {} professionals over {} days in {} ms",
+                    windows.size(), loadedProfessionals.size(), loadedDays.size(), (System.nanoTime() - started) / 1_000_000);
+            if (!changed.isEmpty()) {
+                log.info("Availability index reload changed {} days", changed.size());
+                eventPublisher.publishEvent(new AvailabilityReloadedEvent(changed));
+            }
+        } finally {
+            trackChanges(null);
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads one date from the primary, for changes to it this instance has no event for, and publishes what
+     * changed. Waits for a full reload in progress, which could otherwise swap in an older copy of the date.
+     */
+    public void reload(LocalDate date) {
+        if (!covers(date)) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            trackChanges(new ArrayList<>());
+            List<AvailabilityWindow> windows = new ArrayList<>();
+            Map<Long, ProfessionalInfo> added = new HashMap<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                windows.addAll(availabilityRepository.findWindowsOn(date));
+                Set<Long> unknown = new HashSet<>();
+                windows.forEach(window -> {
+                    if (window.getProfessionalId() != null && !professionals.containsKey(window.getProfessionalId())) {
+                        unknown.add(window.getProfessionalId());
+                    }
+                });
+                if (!unknown.isEmpty()) {
+                    cleaningProfessionalRepository.findSummariesByIdIn(unknown).forEach(summary -> added.put(summary.getId(),
+                            new ProfessionalInfo(summary.getId(), summary.getName(), summary.getVehicleId())));
+                }
+            });
+            Map<LocalDate, DaySchedule> loadedDays = new HashMap<>();
+            loadedDays.put(date, DaySchedule.of(bitmapsOf(windows).getOrDefault(date, Map.of())));
+
+            Set<Long> changed;
+            writeLock.lock();
+            try {
+                professionals.putAll(added);
+                for (AvailabilityChangedEvent event : changedDuringReload) {
+                    if (event.date().equals(date)) {
+                        apply(event, professionals, loadedDays);
+                    }
+                }
+                changed = days.getOrDefault(date, DaySchedule.EMPTY).differences(loadedDays.get(date));
+                days.put(date, loadedDays.get(date));
+            } finally {
+                writeLock.unlock();
+            }
+            if (!changed.isEmpty()) {
+                eventPublisher.publishEvent(new AvailabilityReloadedEvent(Map.of(date, changed)));
+            }
+        } finally {
+            trackChanges(null);
+            reloadLock.unlock();
+        }
+    }
+
+    private static Map<LocalDate, Map<Long, long[]>> bitmapsOf(List<AvailabilityWindow> windows) {
+        Map<LocalDate, Map<Long, long[]>> bitmaps = new HashMap<>();
+        for (AvailabilityWindow window : windows) {
+            if (window.getProfessionalId() != null && window.getStatus() == AvailabilityStatus.AVAILABLE) {
+                long[] bitmap = bitmaps.computeIfAbsent(window.getDate(), date -> new HashMap<>())
+                        .computeIfAbsent(window.getProfessionalId(), id -> SlotBitmap.empty());
+                markFree(bitmap, window.getStartTime(), window.getEndTime());
+            }
+        }
+        for (AvailabilityWindow window : windows) {
+            if (window.getStatus() != AvailabilityStatus.AVAILABLE) {
+                long[] bitmap = bitmaps.getOrDefault(window.getDate(), Map.of()).get(window.getProfessionalId());
+                if (bitmap != null) {
+                    markTaken(bitmap, window.getStartTime(), window.getEndTime());
+                }
+            }
+        }
+        return bitmaps;
+    }
+
+    private void trackChanges(List<AvailabilityChangedEvent> events) {
+        writeLock.lock();
+        try {
+            changedDuringReload = events;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Professionals whose free slots or details differ between the current load and the new one, by date.
+     */
+    private Map<LocalDate, Set<Long>> changesFrom(LocalDate from, Map<Long, ProfessionalInfo> loadedProfessionals,
+                                                  Map<LocalDate, DaySchedule> loadedDays) {
+        Set<Long> changedDetails = new HashSet<>();
+        loadedProfessionals.forEach((id, info) -> {
+            if (!info.equals(professionals.get(id))) {
+                changedDetails.add(id);
+            }
+        });
+        Set<LocalDate> dates = new HashSet<>(loadedDays.keySet());
+        dates.addAll(days.keySet());
+        Map<LocalDate, Set<Long>> changed = new HashMap<>();
+        for (LocalDate date : dates) {
+            if (date.isBefore(from)) {
+                continue;
+            }
+            DaySchedule loaded = loadedDays.getOrDefault(date, DaySchedule.EMPTY);
+            Set<Long> ids = days.getOrDefault(date, DaySchedule.EMPTY).differences(loaded);
+            for (int i = 0; i < loaded.size(); i++) {
+                if (changedDetails.contains(loaded.professionalId(i))) {
+                    ids.add(loaded.professionalId(i));
+                }
+            }
+            if (!ids.isEmpty()) {
+                changed.put(date, ids);
+            }
+        }
+        return changed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        writeLock.lock();
+        try {
+            if (changedDuringReload != null) {
+                changedDuringReload.add(event);
+            }
+            if (covers(event.date())) {
+                apply(event, professionals, days);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void apply(AvailabilityChangedEvent event, Map<Long, ProfessionalInfo> professionals, Map<LocalDate, DaySchedule> days) {
+        Map<Long, long[]> replacements = new HashMap<>();
+        event.availabilities().forEach((professionalId, availabilities) -> {
+            availabilities.stream()
+                    .map(Availability::getCleaningProfessional)
+                    .filter(professional -> professional != null && professional.getId() != null)
+                    .findFirst()
+                    .ifPresent(professional -> professionals.put(professional.getId(), infoOf(professional)));
+            replacements.put(professionalId, bitmapOf(availabilities));
+        });
+        days.compute(event.date(), (date, schedule) -> (schedule == null ? DaySchedule.EMPTY : schedule).merge(replacements));
+    }
+
+    /**
+     * Whether reads for the given date can be answered from the index.
+     */
+    public boolean covers(LocalDate date) {
+        LocalDate from = loadedFrom;
+        return from != null && !date.isBefore(from);
+    }
+
+    public ProfessionalInfo professional(Long professionalId) {
+        return professionals.get(professionalId);
+    }
+
+    /**
+     * The professional's free slots on the given date, or {@code null} when they have none or are unknown.
+     */
+    public ProfessionalSlots findAvailable(LocalDate date, Long professionalId) {
+        DaySchedule schedule = days.getOrDefault(date, DaySchedule.EMPTY);
+        int index = schedule.indexAfter(professionalId) - 1;
+        return index >= 0 && schedule.professionalId(index) == professionalId ? slotsOf(schedule, index) : null;
+    }
+
+    /**
+     * Professionals with at least one free slot on the given date, ordered by id.
+     */
+    public List<ProfessionalSlots> findAvailable(LocalDate date) {
+        return streamAvailable(date, null, null, null).toList();
+    }
+
+    /**
+     * Professionals free for every slot overlapping {@code [startTime, endTime)} on the given date, ordered by id.
+     */
+    public List<ProfessionalSlots> findAvailable(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return streamAvailable(date, startTime, endTime, null).toList();
+    }
+
+    /**
+     * Lazily walks a snapshot of the given date, ordered by id and starting after {@code afterProfessionalId} if set.
+     * Without a time range every professional with a free slot matches.
+     */
+    public Stream<ProfessionalSlots> streamAvailable(LocalDate date, LocalTime startTime, LocalTime endTime, Long afterProfessionalId) {
+        long[] mask = startTime == null ? null : maskOf(startTime, endTime);
+        if (startTime != null && mask == null) {
+            return Stream.empty();
+        }
+        DaySchedule schedule = days.getOrDefault(date, DaySchedule.EMPTY);
+        long[] words = schedule.words();
+        int from = afterProfessionalId == null ? 0 : schedule.indexAfter(afterProfessionalId);
+        return IntStream.range(from, schedule.size())
+                .filter(i -> mask == null || SlotBitmap.containsAll(words, DaySchedule.offset(i), mask))
+                .mapToObj(i -> slotsOf(schedule, i))
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Up to {@code limit} teams of {@code teamSize} professionals sharing a vehicle and all free for
+     * {@code [startTime, endTime)}, best first. Each vehicle contributes the professionals the booking fits most
+     * tightly, and vehicles are ranked by the idle time their team would have left around the booking, so long free
+     * windows stay whole for long bookings. Ties go to the lower vehicle id.
+     */
+    public List<List<ProfessionalInfo>> findTeams(LocalDate date, LocalTime startTime, LocalTime endTime, int teamSize, int limit) {
+        long[] mask = maskOf(startTime, endTime);
+        if (mask == null) {
+            return List.of();
+        }
+        int fromSlot = SlotBitmap.slotFloor(startTime);
+        int toSlot = Math.max(SlotBitmap.endSlotCeil(endTime), fromSlot + 1);
+        DaySchedule schedule = days.getOrDefault(date, DaySchedule.EMPTY);
+        long[] words = schedule.words();
+        Map<Long, VehicleTeam> vehicles = new HashMap<>();
+        for (int i = 0; i < schedule.size(); i++) {
+            int offset = DaySchedule.offset(i);
+            if (!SlotBitmap.containsAll(words, offset, mask)) {
+                continue;
+            }
+            ProfessionalInfo info = professionals.get(schedule.professionalId(i));
+            if (info == null || info.vehicleId() == null) {
+                continue;
+            }
+            vehicles.computeIfAbsent(info.vehicleId(), vehicleId -> new VehicleTeam(vehicleId, teamSize))
+                    .offer(info, SlotBitmap.freeAround(words, offset, fromSlot, toSlot));
+        }
+        // Keep only the best `limit` teams instead of sorting every vehicle
+        Comparator<VehicleTeam> ranking = Comparator.comparingInt(VehicleTeam::idleSlots).thenComparingLong(VehicleTeam::vehicleId);
+        PriorityQueue<VehicleTeam> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (VehicleTeam team : vehicles.values()) {
+            if (team.isComplete()) {
+                best.add(team);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        return best.stream()
+                .sorted(ranking)
+                .map(VehicleTeam::members)
+                .toList();
+    }
+
+    /**
+     * Up to {@code limit} start times, earliest first, at which {@code teamSize} professionals of one vehicle are all
+     * free for {@code durationSlots} slots. Searches {@code days} days from {@code date}, and on that first day only
+     * from {@code earliest} on. Candidates can be narrowed to one vehicle or to a set of professionals. Each day is a
+     * single pass over its bitmaps. Every start comes with the team of the lowest vehicle id that fits, chosen by
+     * lowest professional id within the vehicle.
+     */
+    public List<SlotSuggestion> suggestStarts(LocalDate date, LocalTime earliest, int days, int durationSlots, int teamSize,
+                                              Long vehicleId, Set<Long> professionalIds, int limit) {
+        List<SlotSuggestion> suggestions = new ArrayList<>();
+        for (int day = 0; day < days && suggestions.size() < limit; day++) {
+            LocalDate current = date.plusDays(day);
+            int earliestSlot = day == 0 ? SlotBitmap.slotCeil(earliest) : 0;
+            DaySchedule schedule = this.days.getOrDefault(current, DaySchedule.EMPTY);
+            long[] words = schedule.words();
+            Map<Long, VehicleStarts> vehicles = new HashMap<>();
+            for (int i = 0; i < schedule.size(); i++) {
+                ProfessionalInfo info = professionals.get(schedule.professionalId(i));
+                if (info == null || info.vehicleId() == null
+                        || (vehicleId != null && !vehicleId.equals(info.vehicleId()))
+                        || (professionalIds != null && !professionalIds.contains(info.id()))) {
+                    continue;
+                }
+                long[] starts = SlotBitmap.runStarts(words, DaySchedule.offset(i), durationSlots);
+                SlotBitmap.clear(starts, 0, 0, earliestSlot);
+                if (!SlotBitmap.isEmpty(starts, 0)) {
+                    vehicles.computeIfAbsent(info.vehicleId(), id -> new VehicleStarts(id, teamSize)).offer(info, starts);
+                }
+            }
+
+            VehicleStarts[] bySlot = new VehicleStarts[SlotBitmap.SLOTS_PER_DAY];
+            for (VehicleStarts vehicle : vehicles.values()) {
+                long[] teamStarts = vehicle.teamStarts();
+                for (int slot = earliestSlot; slot < SlotBitmap.SLOTS_PER_DAY; slot++) {
+                    if (SlotBitmap.isSet(teamStarts, 0, slot) && (bySlot[slot] == null || vehicle.vehicleId() < bySlot[slot].vehicleId())) {
+                        bySlot[slot] = vehicle;
+                    }
+                }
+            }
+            for (int slot = earliestSlot; slot < SlotBitmap.SLOTS_PER_DAY && suggestions.size() < limit; slot++) {
+                if (bySlot[slot] != null) {
+                    suggestions.add(new SlotSuggestion(LocalDateTime.of(current, SlotBitmap.timeOf(slot)), bySlot[slot].vehicleId(), bySlot[slot].team(slot)));
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    static long[] maskOf(LocalTime startTime, LocalTime endTime) {
+        int fromSlot = SlotBitmap.slotFloor(startTime);
+        int toSlot = SlotBitmap.endSlotCeil(endTime);
+        if (endTime.equals(startTime)) {
+            toSlot = fromSlot + 1;
+        } else if (endTime.isBefore(startTime) && !endTime.equals(LocalTime.MIDNIGHT)) {
+            return null;
+        }
+        return SlotBitmap.mask(fromSlot, toSlot);
+    }
+
+    private ProfessionalSlots slotsOf(DaySchedule schedule, int index) {
+        ProfessionalInfo info = professionals.get(schedule.professionalId(index));
+        return info == null ? null : new ProfessionalSlots(info, schedule.bitmap(index));
+    }
+
+    private static ProfessionalInfo infoOf(CleaningProfessional professional) {
+        Long vehicleId = professional.getVehicle() == null ? null : professional.getVehicle().getId();
+        return new ProfessionalInfo(professional.getId(), professional.getName(), vehicleId);
+    }
+
+    static long[] bitmapOf(List<Availability> availabilities) {
+        long[] bitmap = SlotBitmap.empty();
+        for (Availability availability : availabilities) {
+            if (availability.getStatus() == AvailabilityStatus.AVAILABLE) {
+                markFree(bitmap, availability.getStartTime(), availability.getEndTime());
+            }
+        }
+        for (Availability availability : availabilities) {
+            if (availability.getStatus() != AvailabilityStatus.AVAILABLE) {
+                markTaken(bitmap, availability.getStartTime(), availability.getEndTime());
+            }
+        }
+        return bitmap;
+    }
+
+    private static void markFree(long[] bitmap, LocalTime startTime, LocalTime endTime) {
+        SlotBitmap.set(bitmap, 0, SlotBitmap.slotCeil(startTime), SlotBitmap.endSlotFloor(endTime));
+    }
+
+    private static void markTaken(long[] bitmap, LocalTime startTime, LocalTime endTime) {
+        SlotBitmap.clear(bitmap, 0, SlotBitmap.slotFloor(startTime), SlotBitmap.endSlotCeil(endTime));
+    }
+}
@@ -0,0 +1,160 @@
+package com.justlife.home.cleaning.availability;
+
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.AvailabilitySummary;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.repository.AvailabilitySummaryJdbcRepository;
+import com.justlife.home.cleaning.repository.AvailabilitySummaryRepository;
+import com.justlife.home.cleaning.repository.projection.ProfessionalFreeIntervals;
+import com.justlife.home.cleaning.response.TimeSlots;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link AvailabilitySummary} rows, the merged free intervals of every professional and day, in step with the
+ * availability rows. Rebuilt in the background on startup, then patched inside each booking transaction from its
+ * {@link AvailabilityChangedEvent}s. Availability rows written outside the booking flow must publish the event too,
+ * or be followed by {@link #rebuild(LocalDate, LocalDate)}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AvailabilityMaterializer {
+    private final AvailabilitySummaryRepository summaryRepository;
+    private final AvailabilitySummaryJdbcRepository summaryJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<LocalDate> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes every summary, one date per transaction, so a booking's summary write waits for at most one date's
+     * rebuild. Dates booked while their rows were being read are recomputed again afterwards, since their changes may
+     * have been overwritten with older data. The transactions are read-write, so rows are always read from the
+     * primary.
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        changedDuringRebuild.clear();
+        rebuilding = true;
+        int written = 0;
+        try {
+            for (LocalDate date : summaryJdbcRepository.findDates()) {
+                written += replace(date);
+            }
+        } finally {
+            rebuilding = false;
+        }
+        changedDuringRebuild.forEach(this::rebuild);
+        ready = true;
+        log.info("Materialized {} availability summaries in {} ms", written, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Recomputes the summaries from {@code from} to {@code to}, inclusive, one date per transaction.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            replace(date);
+        }
+    }
+
+    public void rebuild(LocalDate date) {
+        replace(date);
+    }
+
+    private int replace(LocalDate date) {
+        Integer written = transactionTemplate.execute(status -> summaryJdbcRepository.replace(date));
+        return written == null ? 0 : written;
+    }
+
+    /**
+     * Whether the first rebuild has finished, so summaries can be read instead of availability rows.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<ProfessionalFreeIntervals> findByDate(LocalDate date) {
+        return summaryRepository.findFreeIntervals(date);
+    }
+
+    /**
+     * Runs before the booking commits so summaries change atomically with the availability rows. The booking's own
+     * version checks are flushed first; a summary written concurrently by another instance surfaces as an
+     * {@link OptimisticLockingFailureException}, which booking writes already retry.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.add(event.date());
+        }
+        summaryRepository.flush();
+        try {
+            applyChanges(event);
+            summaryRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new OptimisticLockingFailureException("Availability summary for " + event.date() + " was created concurrently", e);
+        }
+    }
+
+    private void applyChanges(AvailabilityChangedEvent event) {
+        Map<Long, AvailabilitySummary> existing = summaryRepository.findByDateAndProfessionalIdIn(event.date(), event.availabilities().keySet()).stream()
+                .collect(Collectors.toMap(AvailabilitySummary::getProfessionalId, Function.identity()));
+        List<AvailabilitySummary> changed = new ArrayList<>();
+        List<AvailabilitySummary> emptied = new ArrayList<>();
+        event.availabilities().forEach((professionalId, availabilities) -> {
+            AvailabilitySummary summary = existing.get(professionalId);
+            List<TimeSlots> free = FreeIntervals.of(availabilities).merge();
+            if (free.isEmpty()) {
+                if (summary != null) {
+                    emptied.add(summary);
+                }
+                return;
+            }
+            if (summary == null) {
+                summary = AvailabilitySummary.builder().date(event.date()).professionalId(professionalId).build();
+            }
+            CleaningProfessional professional = availabilities.stream()
+                    .map(Availability::getCleaningProfessional)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+            if (professional != null) {
+                summary.setName(professional.getName());
+                summary.setVehicleId(professional.getVehicle() == null ? null : professional.getVehicle().getId());
+            }
+            summary.setFreeIntervals(FreeIntervals.format(free));
+            changed.add(summary);
+        });
+        summaryRepository.deleteAll(emptied);
+        summaryRepository.saveAll(changed);
+    }
+}
@@ -0,0 +1,36 @@
+package com.justlife.home.cleaning.availability;
+
+import com.justlife.home.cleaning.repository.AvailabilityJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-date availability versions for conditional GETs, derived from the date's rows
+ * ({@link AvailabilityJdbcRepository#findVersion}), so every instance tags the same rows alike and a change made by
+ * another instance or outside the booking flow moves the version too. The first time this instance sees a new
+ * version for a date, it reloads the date into {@link AvailabilityIndex} and evicts it from {@link AvailabilityCache}
+ * before handing the version out. Read the version before computing a response, so the response is never older than
+ * the version it is tagged with.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityVersions {
+    private final AvailabilityJdbcRepository availabilityJdbcRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCache availabilityCache;
+    private final Map<LocalDate, String> seen = new ConcurrentHashMap<>();
+
+    public String version(LocalDate date) {
+        String version = availabilityJdbcRepository.findVersion(date);
+        if (!version.equals(seen.get(date))) {
+            availabilityIndex.reload(date);
+            availabilityCache.evict(date);
+            seen.put(date, version);
+        }
+        return version;
+    }
+}
@@ -0,0 +1,117 @@
+package com.justlife.home.cleaning.availability;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable free-slot bitmaps of every professional on one day. Bitmaps are stored back to back in a single
+ * {@code long[]}, ordered by professional id, so a day can be scanned without touching any other object.
+ */
+final class DaySchedule {
+    static final DaySchedule EMPTY = new DaySchedule(new long[0], new long[0]);
+
+    private final long[] professionalIds;
+    private final long[] words;
+
+    private DaySchedule(long[] professionalIds, long[] words) {
+        this.professionalIds = professionalIds;
+        this.words = words;
+    }
+
+    /**
+     * Builds a schedule from bitmaps keyed by professional id, dropping professionals without free slots.
+     */
+    static DaySchedule of(Map<Long, long[]> bitmaps) {
+        return EMPTY.merge(bitmaps);
+    }
+
+    /**
+     * Returns a copy of this schedule with the given professionals' bitmaps replaced.
+     */
+    DaySchedule merge(Map<Long, long[]> replacements) {
+        long[] replacementIds = replacements.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] mergedIds = new long[professionalIds.length + replacementIds.length];
+        long[] mergedWords = new long[mergedIds.length * SlotBitmap.WORDS_PER_DAY];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < professionalIds.length || j < replacementIds.length) {
+            long[] source;
+            int sourceOffset;
+            long id;
+            if (j == replacementIds.length || (i < professionalIds.length && professionalIds[i] < replacementIds[j])) {
+                id = professionalIds[i];
+                source = words;
+                sourceOffset = offset(i++);
+            } else {
+                id = replacementIds[j++];
+                if (i < professionalIds.length && professionalIds[i] == id) {
+                    i++;
+                }
+                source = replacements.get(id);
+                sourceOffset = 0;
+            }
+            if (SlotBitmap.isEmpty(source, sourceOffset)) {
+                continue;
+            }
+            mergedIds[size] = id;
+            System.arraycopy(source, sourceOffset, mergedWords, offset(size), SlotBitmap.WORDS_PER_DAY);
+            size++;
+        }
+        return new DaySchedule(Arrays.copyOf(mergedIds, size),
+                Arrays.copyOf(mergedWords, size * SlotBitmap.WORDS_PER_DAY));
+    }
+
+    /**
+     * Ids of the professionals whose free slots differ between this schedule and {@code other}.
+     */
+    Set<Long> differences(DaySchedule other) {
+        Set<Long> changed = new HashSet<>();
+        int i = 0;
+        int j = 0;
+        while (i < size() || j < other.size()) {
+            if (j == other.size() || (i < size() && professionalIds[i] < other.professionalIds[j])) {
+                changed.add(professionalIds[i++]);
+            } else if (i == size() || other.professionalIds[j] < professionalIds[i]) {
+                changed.add(other.professionalIds[j++]);
+            } else {
+                if (!Arrays.equals(words, offset(i), offset(i + 1), other.words, offset(j), offset(j + 1))) {
+                    changed.add(professionalIds[i]);
+                }
+                i++;
+                j++;
+            }
+        }
+        return changed;
+    }
+
+    int size() {
+        return professionalIds.length;
+    }
+
+    /**
+     * Index of the first professional with an id greater than {@code professionalId}.
+     */
+    int indexAfter(long professionalId) {
+        int index = Arrays.binarySearch(professionalIds, professionalId);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    long professionalId(int index) {
+        return professionalIds[index];
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    static int offset(int index) {
+        return index * SlotBitmap.WORDS_PER_DAY;
+    }
+
+    long[] bitmap(int index) {
+        return Arrays.copyOfRange(words, offset(index), offset(index) + SlotBitmap.WORDS_PER_DAY);
+    }
+}
@@ -0,0 +1,196 @@
+package com.justlife.home.cleaning.availability;
+
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Availability rows of one professional on one day as a sorted list of non-overlapping segments keyed by start time.
+ * Booking merges the touching free segments it spans (schedules are generated one row per slot) and splits the result
+ * into free/booked/free; releasing a booking merges it back with free neighbours. Rows added or dropped along the way are collected in
+ * {@link #created()} and {@link #removed()} for the caller to persist.
+ */
+public final class DaySegments {
+    private final CleaningProfessional professional;
+    private final LocalDate date;
+    private final TreeMap<LocalTime, Availability> segments = new TreeMap<>();
+    private final List<Availability> created = new ArrayList<>();
+    private final List<Availability> removed = new ArrayList<>();
+
+    public DaySegments(CleaningProfessional professional, LocalDate date, Collection<Availability> availabilities) {
+        this.professional = professional;
+        this.date = date;
+        for (Availability availability : availabilities) {
+            // Overlapping legacy rows starting at the same time: keep the one that blocks the slot
+            segments.merge(availability.getStartTime(), availability,
+                    (existing, other) -> existing.getStatus() == AvailabilityStatus.AVAILABLE ? other : existing);
+        }
+    }
+
+    public CleaningProfessional getProfessional() {
+        return professional;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Whether touching or overlapping free segments cover {@code [startTime, endTime)}.
+     */
+    public boolean isFree(LocalTime startTime, LocalTime endTime) {
+        return findFree(startTime, endTime) != null;
+    }
+
+    /**
+     * Marks {@code [startTime, endTime)} as booked, merging the free segments it spans into one and splitting that
+     * around the range.
+     *
+     * @return the booked row
+     * @throws IllegalStateException if free segments do not cover the range
+     */
+    public Availability book(LocalTime startTime, LocalTime endTime) {
+        List<Availability> run = findFree(startTime, endTime);
+        if (run == null) {
+            throw new IllegalStateException("No free segment covers " + startTime + "-" + endTime + " on " + date);
+        }
+        Availability free = run.get(0);
+        LocalTime freeStart = free.getStartTime();
+        LocalTime freeEnd = free.getEndTime();
+        for (Availability merged : run.subList(1, run.size())) {
+            if (endsAfter(merged.getEndTime(), freeEnd)) {
+                freeEnd = merged.getEndTime();
+            }
+            remove(merged);
+        }
+
+        segments.remove(freeStart);
+        free.setStartTime(startTime);
+        free.setEndTime(endTime);
+        free.setStatus(AvailabilityStatus.BOOKED);
+        segments.put(startTime, free);
+
+        if (freeStart.isBefore(startTime)) {
+            add(freeStart, startTime);
+        }
+        if (!endTime.equals(freeEnd)) {
+            add(endTime, freeEnd);
+        }
+        return free;
+    }
+
+    /**
+     * Frees the booked segment {@code [startTime, endTime)} and merges it with adjacent free segments.
+     *
+     * @return {@code false} if no booked segment matches the range exactly
+     */
+    public boolean release(LocalTime startTime, LocalTime endTime) {
+        Availability booked = segments.get(startTime);
+        if (booked == null || booked.getStatus() != AvailabilityStatus.BOOKED || !booked.getEndTime().equals(endTime)) {
+            return false;
+        }
+        booked.setStatus(AvailabilityStatus.AVAILABLE);
+
+        Map.Entry<LocalTime, Availability> lower = segments.lowerEntry(startTime);
+        if (lower != null && lower.getValue().getStatus() == AvailabilityStatus.AVAILABLE
+                && lower.getValue().getEndTime().equals(startTime)) {
+            segments.remove(startTime);
+            booked.setStartTime(lower.getKey());
+            remove(lower.getValue());
+            segments.put(booked.getStartTime(), booked);
+        }
+        Map.Entry<LocalTime, Availability> higher = segments.higherEntry(booked.getStartTime());
+        if (higher != null && higher.getValue().getStatus() == AvailabilityStatus.AVAILABLE
+                && higher.getKey().equals(endTime)) {
+            booked.setEndTime(higher.getValue().getEndTime());
+            remove(higher.getValue());
+        }
+        return true;
+    }
+
+    /**
+     * Current rows ordered by start time.
+     */
+    public List<Availability> availabilities() {
+        return new ArrayList<>(segments.values());
+    }
+
+    /**
+     * New rows that still need to be inserted.
+     */
+    public List<Availability> created() {
+        return created;
+    }
+
+    /**
+     * Existing rows that were merged away and need to be deleted.
+     */
+    public List<Availability> removed() {
+        return removed;
+    }
+
+    /**
+     * The free segments, in order, that together cover {@code [startTime, endTime)}, or {@code null}.
+     */
+    private List<Availability> findFree(LocalTime startTime, LocalTime endTime) {
+        if (!isValidRange(startTime, endTime)) {
+            return null;
+        }
+        List<Availability> run = new ArrayList<>();
+        LocalTime reached = startTime;
+        Map.Entry<LocalTime, Availability> entry = segments.floorEntry(startTime);
+        while (entry != null && entry.getValue().getStatus() == AvailabilityStatus.AVAILABLE && !entry.getKey().isAfter(reached)) {
+            Availability segment = entry.getValue();
+            run.add(segment);
+            if (!endsAfter(endTime, segment.getEndTime())) {
+                return run;
+            }
+            if (endsAfter(segment.getEndTime(), reached)) {
+                reached = segment.getEndTime();
+            }
+            entry = segments.higherEntry(entry.getKey());
+        }
+        return null;
+    }
+
+    /**
+     * Compares end times, where midnight is the end of the day.
+     */
+    private static boolean endsAfter(LocalTime end, LocalTime other) {
+        if (end.equals(LocalTime.MIDNIGHT)) {
+            return !other.equals(LocalTime.MIDNIGHT);
+        }
+        return !other.equals(LocalTime.MIDNIGHT) && end.isAfter(other);
+    }
+
+    private static boolean isValidRange(LocalTime startTime, LocalTime endTime) {
+        return endTime.isAfter(startTime) || (endTime.equals(LocalTime.MIDNIGHT) && !startTime.equals(LocalTime.MIDNIGHT));
+    }
+
+    private void add(LocalTime startTime, LocalTime endTime) {
+        Availability availability = Availability.builder()
+                .cleaningProfessional(professional)
+                .date(date)
+                .status(AvailabilityStatus.AVAILABLE)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+        segments.put(startTime, availability);
+        created.add(availability);
+    }
+
+    private void remove(Availability availability) {
+        segments.remove(availability.getStartTime());
+        if (!created.remove(availability)) {
+            removed.add(availability);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.justlife.home.cleaning.availability;
+
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.response.TimeSlots;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Free time of one professional on one day, computed from availability rows: free rows merged where they touch or
+ * overlap, minus every booked or unavailable row. Stored as {@code start-end} pairs separated by commas.
+ */
+public final class FreeIntervals {
+    private final List<Interval> free = new ArrayList<>();
+    private final List<Interval> taken = new ArrayList<>();
+
+    public static FreeIntervals of(Collection<Availability> availabilities) {
+        FreeIntervals intervals = new FreeIntervals();
+        availabilities.forEach(availability -> intervals.add(availability.getStatus(), availability.getStartTime(), availability.getEndTime()));
+        return intervals;
+    }
+
+    public void add(AvailabilityStatus status, LocalTime startTime, LocalTime endTime) {
+        (status == AvailabilityStatus.AVAILABLE ? free : taken).add(new Interval(startTime, endTime));
+    }
+
+    public List<TimeSlots> merge() {
+        List<Interval> merged = new ArrayList<>();
+        free.stream().sorted(Comparator.comparing(Interval::start)).forEach(interval -> {
+            int last = merged.size() - 1;
+            if (last >= 0 && !interval.start().isAfter(merged.get(last).end())) {
+                if (interval.end().isAfter(merged.get(last).end())) {
+                    merged.set(last, new Interval(merged.get(last).start(), interval.end()));
+                }
+            } else {
+                merged.add(interval);
+            }
+        });
+        List<Interval> remaining = merged;
+        for (Interval blocked : taken) {
+            List<Interval> next = new ArrayList<>();
+            for (Interval interval : remaining) {
+                if (!blocked.start().isBefore(interval.end()) || !blocked.end().isAfter(interval.start())) {
+                    next.add(interval);
+                    continue;
+                }
+                if (interval.start().isBefore(blocked.start())) {
+                    next.add(new Interval(interval.start(), blocked.start()));
+                }
+                if (blocked.end().isBefore(interval.end())) {
+                    next.add(new Interval(blocked.end(), interval.end()));
+                }
+            }
+            remaining = next;
+        }
+        return remaining.stream()
+                .map(interval -> TimeSlots.builder().startTime(interval.start()).endTime(interval.end()).build())
+                .toList();
+    }
+
+    public static String format(List<TimeSlots> timeSlots) {
+        StringBuilder formatted = new StringBuilder();
+        for (TimeSlots slot : timeSlots) {
+            if (!formatted.isEmpty()) {
+                formatted.append(',');
+            }
+            formatted.append(slot.getStartTime()).append('-').append(slot.getEndTime());
+        }
+        return formatted.toString();
+    }
+
+    public static List<TimeSlots> parse(String formatted) {
+        List<TimeSlots> timeSlots = new ArrayList<>();
+        if (formatted == null || formatted.isEmpty()) {
+            return timeSlots;
+        }
+        int start = 0;
+        while (start < formatted.length()) {
+            int separator = formatted.indexOf('-', start);
+            int end = formatted.indexOf(',', separator);
+            if (end < 0) {
+                end = formatted.length();
+            }
+            timeSlots.add(TimeSlots.builder()
+                    .startTime(parseTime(formatted, start, separator))
+                    .endTime(parseTime(formatted, separator + 1, end))
+                    .build());
+            start = end + 1;
+        }
+        return timeSlots;
+    }
+
+    /**
+     * Parses {@code HH:mm} or {@code HH:mm:ss} as written by {@link LocalTime#toString()}, without the cost of a
+     * {@link java.time.format.DateTimeFormatter} on the read path.
+     */
+    private static LocalTime parseTime(String text, int from, int to) {
+        if (to - from != 5 && to - from != 8) {
+            return LocalTime.parse(text.substring(from, to));
+        }
+        int hour = digits(text, from);
+        int minute = digits(text, from + 3);
+        int second = to - from == 8 ? digits(text, from + 6) : 0;
+        return LocalTime.of(hour, minute, second);
+    }
+
+    private static int digits(String text, int at) {
+        return (text.charAt(at) - '0') * 10 + (text.charAt(at + 1) - '0');
+    }
+
+    private record Interval(LocalTime start, LocalTime end) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.justlife.home.cleaning.availability;
+
+public record ProfessionalInfo(Long id, String name, Long vehicleId) {
+}
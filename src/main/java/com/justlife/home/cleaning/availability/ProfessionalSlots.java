@@ -0,0 +1,7 @@
+package com.justlife.home.cleaning.availability;
+
+/**
+ * Free-slot bitmap of one professional on one day, see {@link SlotBitmap}.
+ */
+public record ProfessionalSlots(ProfessionalInfo professional, long[] bitmap) {
+}
@@ -0,0 +1,179 @@
+package com.justlife.home.cleaning.availability;
+
+import com.justlife.home.cleaning.response.TimeSlots;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Word-level helpers for a day split into fixed {@value #SLOT_MINUTES}-minute slots.
+ * A set bit means the professional is free for the whole slot.
+ */
+public final class SlotBitmap {
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) >>> 6;
+
+    private SlotBitmap() {
+    }
+
+    public static long[] empty() {
+        return new long[WORDS_PER_DAY];
+    }
+
+    /**
+     * First slot that starts at or after the given time.
+     */
+    public static int slotCeil(LocalTime time) {
+        int minutes = time.toSecondOfDay() / 60;
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    /**
+     * Slot containing the given time.
+     */
+    public static int slotFloor(LocalTime time) {
+        return time.toSecondOfDay() / 60 / SLOT_MINUTES;
+    }
+
+    /**
+     * End slot (exclusive) for a window end time, treating midnight as the end of the day.
+     */
+    public static int endSlotFloor(LocalTime endTime) {
+        return endTime.equals(LocalTime.MIDNIGHT) ? SLOTS_PER_DAY : slotFloor(endTime);
+    }
+
+    public static int endSlotCeil(LocalTime endTime) {
+        return endTime.equals(LocalTime.MIDNIGHT) ? SLOTS_PER_DAY : slotCeil(endTime);
+    }
+
+    /**
+     * Whether the time is the exact start of a slot.
+     */
+    public static boolean isSlotStart(LocalTime time) {
+        return time.toSecondOfDay() % (SLOT_MINUTES * 60) == 0 && time.getNano() == 0;
+    }
+
+    public static LocalTime timeOf(int slot) {
+        return slot >= SLOTS_PER_DAY ? LocalTime.MIDNIGHT : LocalTime.ofSecondOfDay((long) slot * SLOT_MINUTES * 60);
+    }
+
+    public static void set(long[] words, int offset, int fromSlot, int toSlot) {
+        for (int slot = Math.max(fromSlot, 0); slot < Math.min(toSlot, SLOTS_PER_DAY); slot++) {
+            words[offset + (slot >>> 6)] |= 1L << slot;
+        }
+    }
+
+    public static void clear(long[] words, int offset, int fromSlot, int toSlot) {
+        for (int slot = Math.max(fromSlot, 0); slot < Math.min(toSlot, SLOTS_PER_DAY); slot++) {
+            words[offset + (slot >>> 6)] &= ~(1L << slot);
+        }
+    }
+
+    /**
+     * Mask with every slot in {@code [fromSlot, toSlot)} set, or {@code null} if the range does not fit in a day.
+     */
+    public static long[] mask(int fromSlot, int toSlot) {
+        if (fromSlot < 0 || toSlot > SLOTS_PER_DAY || fromSlot >= toSlot) {
+            return null;
+        }
+        long[] mask = empty();
+        set(mask, 0, fromSlot, toSlot);
+        return mask;
+    }
+
+    public static boolean containsAll(long[] words, int offset, long[] mask) {
+        for (int i = 0; i < WORDS_PER_DAY; i++) {
+            if ((words[offset + i] & mask[i]) != mask[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isEmpty(long[] words, int offset) {
+        for (int i = 0; i < WORDS_PER_DAY; i++) {
+            if (words[offset + i] != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isSet(long[] words, int offset, int slot) {
+        return (words[offset + (slot >>> 6)] & (1L << slot)) != 0L;
+    }
+
+    /**
+     * Number of free slots directly before {@code fromSlot} and directly after {@code toSlot}, i.e. how much of the
+     * free window around {@code [fromSlot, toSlot)} a booking of that range would leave idle.
+     */
+    public static int freeAround(long[] words, int offset, int fromSlot, int toSlot) {
+        int free = 0;
+        for (int slot = fromSlot - 1; slot >= 0 && isSet(words, offset, slot); slot--) {
+            free++;
+        }
+        for (int slot = toSlot; slot < SLOTS_PER_DAY && isSet(words, offset, slot); slot++) {
+            free++;
+        }
+        return free;
+    }
+
+    /**
+     * Slots at which {@code length} consecutive free slots start.
+     */
+    public static long[] runStarts(long[] words, int offset, int length) {
+        long[] starts = Arrays.copyOfRange(words, offset, offset + WORDS_PER_DAY);
+        // Every set bit starts a run of `covered` free slots; each step at most doubles that
+        int covered = 1;
+        while (covered < length) {
+            int step = Math.min(covered, length - covered);
+            long[] shifted = shiftDown(starts, step);
+            for (int i = 0; i < WORDS_PER_DAY; i++) {
+                starts[i] &= shifted[i];
+            }
+            covered += step;
+        }
+        return starts;
+    }
+
+    /**
+     * Bitmap whose slot {@code s} is slot {@code s + slots} of the given one.
+     */
+    private static long[] shiftDown(long[] words, int slots) {
+        long[] shifted = empty();
+        int wordShift = slots >>> 6;
+        int bitShift = slots & 63;
+        for (int i = 0; i + wordShift < WORDS_PER_DAY; i++) {
+            long low = words[i + wordShift] >>> bitShift;
+            long high = bitShift == 0 || i + wordShift + 1 >= WORDS_PER_DAY ? 0L : words[i + wordShift + 1] << (64 - bitShift);
+            shifted[i] = low | high;
+        }
+        return shifted;
+    }
+
+    /**
+     * Merges consecutive free slots into time windows.
+     */
+    public static List<TimeSlots> toTimeSlots(long[] words, int offset) {
+        List<TimeSlots> timeSlots = new ArrayList<>();
+        int slot = 0;
+        while (slot < SLOTS_PER_DAY) {
+            if (!isSet(words, offset, slot)) {
+                slot++;
+                continue;
+            }
+            int start = slot;
+            while (slot < SLOTS_PER_DAY && isSet(words, offset, slot)) {
+                slot++;
+            }
+            timeSlots.add(TimeSlots.builder()
+                    .startTime(timeOf(start))
+                    .endTime(timeOf(slot))
+                    .build());
+        }
+        return timeSlots;
+    }
+}
@@ -0,0 +1,10 @@
+package com.justlife.home.cleaning.availability;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A start time at which {@code team}, all of one vehicle, is free for the requested duration.
+ */
+public record SlotSuggestion(LocalDateTime startTime, long vehicleId, List<ProfessionalInfo> team) {
+}
@@ -0,0 +1,58 @@
+package com.justlife.home.cleaning.availability;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Start slots at which enough free professionals of one vehicle can take a booking, collected while scanning a day.
+ * {@code atLeast[k]} holds the slots where at least {@code k + 1} of the members offered so far can start, so a
+ * member costs {@code teamSize} word operations whatever the number of slots.
+ */
+final class VehicleStarts {
+    private final long vehicleId;
+    private final long[][] atLeast;
+    private final List<ProfessionalInfo> members = new ArrayList<>();
+    private final List<long[]> memberStarts = new ArrayList<>();
+
+    VehicleStarts(long vehicleId, int teamSize) {
+        this.vehicleId = vehicleId;
+        this.atLeast = new long[teamSize][SlotBitmap.WORDS_PER_DAY];
+    }
+
+    void offer(ProfessionalInfo professional, long[] starts) {
+        for (int k = atLeast.length - 1; k > 0; k--) {
+            for (int i = 0; i < SlotBitmap.WORDS_PER_DAY; i++) {
+                atLeast[k][i] |= atLeast[k - 1][i] & starts[i];
+            }
+        }
+        for (int i = 0; i < SlotBitmap.WORDS_PER_DAY; i++) {
+            atLeast[0][i] |= starts[i];
+        }
+        members.add(professional);
+        memberStarts.add(starts);
+    }
+
+    long vehicleId() {
+        return vehicleId;
+    }
+
+    /**
+     * Slots at which a whole team can start.
+     */
+    long[] teamStarts() {
+        return atLeast[atLeast.length - 1];
+    }
+
+    /**
+     * The first {@code teamSize} members, in the order offered, who can start at {@code slot}.
+     */
+    List<ProfessionalInfo> team(int slot) {
+        List<ProfessionalInfo> team = new ArrayList<>(atLeast.length);
+        for (int i = 0; i < members.size() && team.size() < atLeast.length; i++) {
+            if (SlotBitmap.isSet(memberStarts.get(i), 0, slot)) {
+                team.add(members.get(i));
+            }
+        }
+        return team;
+    }
+}
@@ -0,0 +1,59 @@
+package com.justlife.home.cleaning.availability;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code size} free professionals of one vehicle that would be left with the least idle time around a booking,
+ * collected while scanning a day.
+ */
+final class VehicleTeam {
+    private final long vehicleId;
+    private final ProfessionalInfo[] members;
+    private final int[] idleSlots;
+    private int count;
+
+    VehicleTeam(long vehicleId, int size) {
+        this.vehicleId = vehicleId;
+        this.members = new ProfessionalInfo[size];
+        this.idleSlots = new int[size];
+    }
+
+    void offer(ProfessionalInfo professional, int idle) {
+        if (count == members.length && idle >= idleSlots[count - 1]) {
+            return;
+        }
+        int i = count == members.length ? count - 1 : count++;
+        while (i > 0 && idleSlots[i - 1] > idle) {
+            members[i] = members[i - 1];
+            idleSlots[i] = idleSlots[i - 1];
+            i--;
+        }
+        members[i] = professional;
+        idleSlots[i] = idle;
+    }
+
+    boolean isComplete() {
+        return count == members.length;
+    }
+
+    long vehicleId() {
+        return vehicleId;
+    }
+
+    int idleSlots() {
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += idleSlots[i];
+        }
+        return total;
+    }
+
+    List<ProfessionalInfo> members() {
+        List<ProfessionalInfo> team = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            team.add(members[i]);
+        }
+        return team;
+    }
+}
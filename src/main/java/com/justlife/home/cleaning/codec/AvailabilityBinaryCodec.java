@@ -0,0 +1,185 @@
+package com.justlife.home.cleaning.codec;
+
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.TimeSlots;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a list of {@link AvailabilityResponse}, made of unsigned LEB128 varints:
+ * <pre>
+ * version
+ * nameCount, (byteLength, UTF-8 bytes) * nameCount
+ * professionalCount, then per professional:
+ *   zigzag(id - previous id), name index + 1 (0 for no name), slotCount,
+ *   (zigzag(start minute - previous end minute), end minute - start minute) * slotCount
+ * </pre>
+ * Names are written once in a dictionary; slots are minute offsets, so a typical slot takes two or three bytes.
+ */
+public final class AvailabilityBinaryCodec {
+    static final int VERSION = 1;
+
+    private AvailabilityBinaryCodec() {
+    }
+
+    public static void write(List<AvailabilityResponse> availabilities, OutputStream out) throws IOException {
+        Map<String, Integer> nameIndexes = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (AvailabilityResponse availability : availabilities) {
+            if (availability.getName() != null && !nameIndexes.containsKey(availability.getName())) {
+                nameIndexes.put(availability.getName(), names.size());
+                names.add(availability.getName());
+            }
+        }
+
+        VarintWriter writer = new VarintWriter(out);
+        writer.write(VERSION);
+        writer.write(names.size());
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            writer.write(bytes.length);
+            writer.write(bytes);
+        }
+        writer.write(availabilities.size());
+        long previousId = 0;
+        for (AvailabilityResponse availability : availabilities) {
+            writer.writeSigned(availability.getProfessionalId() - previousId);
+            previousId = availability.getProfessionalId();
+            writer.write(availability.getName() == null ? 0 : nameIndexes.get(availability.getName()) + 1);
+            List<TimeSlots> slots = availability.getAvailabilities() == null ? List.of() : availability.getAvailabilities();
+            writer.write(slots.size());
+            int previousEnd = 0;
+            for (TimeSlots slot : slots) {
+                int start = SlotMinutes.start(slot);
+                int end = SlotMinutes.end(slot);
+                writer.writeSigned(start - previousEnd);
+                writer.write(end - start);
+                previousEnd = end;
+            }
+        }
+        writer.flush();
+    }
+
+    public static byte[] encode(List<AvailabilityResponse> availabilities) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(availabilities, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static List<AvailabilityResponse> read(InputStream in) throws IOException {
+        VarintReader reader = new VarintReader(in);
+        int version = (int) reader.read();
+        if (version != VERSION) {
+            throw new IOException("Unsupported availability encoding version " + version);
+        }
+        String[] names = new String[(int) reader.read()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = new String(reader.readBytes((int) reader.read()), StandardCharsets.UTF_8);
+        }
+        int count = (int) reader.read();
+        List<AvailabilityResponse> availabilities = new ArrayList<>(count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += reader.readSigned();
+            int nameIndex = (int) reader.read();
+            int slotCount = (int) reader.read();
+            List<TimeSlots> slots = new ArrayList<>(slotCount);
+            int end = 0;
+            for (int j = 0; j < slotCount; j++) {
+                int start = end + (int) reader.readSigned();
+                end = start + (int) reader.read();
+                slots.add(SlotMinutes.slot(start, end));
+            }
+            availabilities.add(AvailabilityResponse.builder()
+                    .professionalId(id)
+                    .name(nameIndex == 0 ? null : names[nameIndex - 1])
+                    .availabilities(slots)
+                    .build());
+        }
+        return availabilities;
+    }
+
+    private static final class VarintWriter {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+
+        VarintWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(long value) throws IOException {
+            if (position > buffer.length - 10) {
+                flush();
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeSigned(long value) throws IOException {
+            write((value << 1) ^ (value >> 63));
+        }
+
+        void write(byte[] bytes) throws IOException {
+            flush();
+            out.write(bytes);
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static final class VarintReader {
+        private final InputStream in;
+
+        VarintReader(InputStream in) {
+            this.in = in;
+        }
+
+        long read() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException("Truncated availability encoding");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in availability encoding");
+        }
+
+        long readSigned() throws IOException {
+            long value = read();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException("Truncated availability encoding");
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.justlife.home.cleaning.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.TimeSlots;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented JSON form of a list of {@link AvailabilityResponse}:
+ * <pre>
+ * {"names": [...], "professionalIds": [...], "nameIndexes": [...], "slotCounts": [...],
+ *  "startMinutes": [...], "endMinutes": [...]}
+ * </pre>
+ * Entry {@code i} of the first three per-professional columns describes one professional, who owns the next
+ * {@code slotCounts[i]} entries of the slot columns. {@code nameIndexes} point into {@code names}, -1 for no name.
+ * Long runs of similar numbers compress far better with gzip or brotli than repeated objects with ISO times.
+ */
+public final class AvailabilityColumnsCodec {
+
+    private AvailabilityColumnsCodec() {
+    }
+
+    public static void write(List<AvailabilityResponse> availabilities, JsonGenerator generator) throws IOException {
+        Map<String, Integer> nameIndexes = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int slotCount = 0;
+        for (AvailabilityResponse availability : availabilities) {
+            if (availability.getName() != null && !nameIndexes.containsKey(availability.getName())) {
+                nameIndexes.put(availability.getName(), names.size());
+                names.add(availability.getName());
+            }
+            slotCount += slotsOf(availability).size();
+        }
+        int[] startMinutes = new int[slotCount];
+        int[] endMinutes = new int[slotCount];
+        int slot = 0;
+        for (AvailabilityResponse availability : availabilities) {
+            for (TimeSlots timeSlot : slotsOf(availability)) {
+                startMinutes[slot] = SlotMinutes.start(timeSlot);
+                endMinutes[slot++] = SlotMinutes.end(timeSlot);
+            }
+        }
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("names");
+        for (String name : names) {
+            generator.writeString(name);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("professionalIds");
+        for (AvailabilityResponse availability : availabilities) {
+            generator.writeNumber(availability.getProfessionalId());
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("nameIndexes");
+        for (AvailabilityResponse availability : availabilities) {
+            generator.writeNumber(availability.getName() == null ? -1 : nameIndexes.get(availability.getName()));
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("slotCounts");
+        for (AvailabilityResponse availability : availabilities) {
+            generator.writeNumber(slotsOf(availability).size());
+        }
+        generator.writeEndArray();
+        generator.writeFieldName("startMinutes");
+        generator.writeArray(startMinutes, 0, startMinutes.length);
+        generator.writeFieldName("endMinutes");
+        generator.writeArray(endMinutes, 0, endMinutes.length);
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    public static List<AvailabilityResponse> read(JsonParser parser, ObjectMapper objectMapper) throws IOException {
+        Columns columns = objectMapper.readValue(parser, Columns.class);
+        List<AvailabilityResponse> availabilities = new ArrayList<>(columns.professionalIds().length);
+        int slot = 0;
+        for (int i = 0; i < columns.professionalIds().length; i++) {
+            List<TimeSlots> slots = new ArrayList<>(columns.slotCounts()[i]);
+            for (int j = 0; j < columns.slotCounts()[i]; j++, slot++) {
+                slots.add(SlotMinutes.slot(columns.startMinutes()[slot], columns.endMinutes()[slot]));
+            }
+            int nameIndex = columns.nameIndexes()[i];
+            availabilities.add(AvailabilityResponse.builder()
+                    .professionalId(columns.professionalIds()[i])
+                    .name(nameIndex < 0 ? null : columns.names().get(nameIndex))
+                    .availabilities(slots)
+                    .build());
+        }
+        return availabilities;
+    }
+
+    private static List<TimeSlots> slotsOf(AvailabilityResponse availability) {
+        return availability.getAvailabilities() == null ? List.of() : availability.getAvailabilities();
+    }
+
+    private record Columns(List<String> names, long[] professionalIds, int[] nameIndexes, int[] slotCounts,
+                           int[] startMinutes, int[] endMinutes) {
+    }
+}
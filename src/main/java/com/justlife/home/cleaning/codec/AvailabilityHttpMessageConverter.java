@@ -0,0 +1,82 @@
+package com.justlife.home.cleaning.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes and reads {@code List<AvailabilityResponse>} as {@link #BINARY} ({@link AvailabilityBinaryCodec}) or
+ * {@link #COLUMNS} ({@link AvailabilityColumnsCodec}), chosen from the {@code Accept} header.
+ */
+@Component
+public class AvailabilityHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<AvailabilityResponse>> {
+    public static final String BINARY_VALUE = "application/vnd.justlife.availability";
+    public static final String COLUMNS_VALUE = "application/vnd.justlife.availability.columns+json";
+    public static final MediaType BINARY = MediaType.parseMediaType(BINARY_VALUE);
+    public static final MediaType COLUMNS = MediaType.parseMediaType(COLUMNS_VALUE);
+
+    private final ObjectMapper objectMapper;
+
+    public AvailabilityHttpMessageConverter(ObjectMapper objectMapper) {
+        super(BINARY, COLUMNS);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isAvailabilityList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isAvailabilityList(type) && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(List<AvailabilityResponse> availabilities, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (BINARY.isCompatibleWith(outputMessage.getHeaders().getContentType())) {
+            AvailabilityBinaryCodec.write(availabilities, outputMessage.getBody());
+            return;
+        }
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody())) {
+            AvailabilityColumnsCodec.write(availabilities, generator);
+        }
+    }
+
+    @Override
+    public List<AvailabilityResponse> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(null, inputMessage);
+    }
+
+    @Override
+    protected List<AvailabilityResponse> readInternal(Class<? extends List<AvailabilityResponse>> clazz, HttpInputMessage inputMessage) throws IOException {
+        if (BINARY.isCompatibleWith(inputMessage.getHeaders().getContentType())) {
+            return AvailabilityBinaryCodec.read(inputMessage.getBody());
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputMessage.getBody())) {
+            return AvailabilityColumnsCodec.read(parser, objectMapper);
+        }
+    }
+
+    private static boolean isAvailabilityList(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() == List.class
+                && parameterized.getActualTypeArguments()[0] == AvailabilityResponse.class;
+    }
+}
@@ -0,0 +1,36 @@
+package com.justlife.home.cleaning.codec;
+
+import com.justlife.home.cleaning.response.TimeSlots;
+
+import java.time.LocalTime;
+
+/**
+ * Minute-of-day offsets for {@link TimeSlots}. An end at or before the start, such as 00:00, is the end of the day
+ * (minute 1440). Seconds are dropped.
+ */
+final class SlotMinutes {
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private SlotMinutes() {
+    }
+
+    static int start(TimeSlots slot) {
+        return slot.getStartTime().toSecondOfDay() / 60;
+    }
+
+    static int end(TimeSlots slot) {
+        int end = slot.getEndTime().toSecondOfDay() / 60;
+        return end <= start(slot) ? end + MINUTES_PER_DAY : end;
+    }
+
+    static TimeSlots slot(int startMinute, int endMinute) {
+        return TimeSlots.builder()
+                .startTime(time(startMinute))
+                .endTime(time(endMinute))
+                .build();
+    }
+
+    private static LocalTime time(int minute) {
+        return LocalTime.ofSecondOfDay((long) (minute % MINUTES_PER_DAY) * 60);
+    }
+}
@@ -0,0 +1,61 @@
+package com.justlife.home.cleaning.concurrency;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of locks addressed by id hash. Callers locking several ids always take the stripes in ascending order,
+ * so two callers can never deadlock on each other, and ids landing on different stripes never contend.
+ */
+public final class StripedLocks {
+    private final ReentrantLock[] stripes;
+
+    public StripedLocks(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the stripes of all given ids.
+     *
+     * @throws LockTimeoutException if the stripes cannot be acquired within the timeout
+     */
+    public <T> T withLocks(Collection<Long> ids, long timeout, TimeUnit unit, Supplier<T> action) {
+        int[] indexes = ids.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    throw new LockTimeoutException("Timed out waiting for booking lock on " + ids);
+                }
+                acquired++;
+            }
+            return action.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LockTimeoutException("Interrupted while waiting for booking lock on " + ids);
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    int stripeOf(Long id) {
+        int hash = Long.hashCode(id);
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+
+    public static class LockTimeoutException extends RuntimeException {
+        public LockTimeoutException(String message) {
+            super(message);
+        }
+    }
+}
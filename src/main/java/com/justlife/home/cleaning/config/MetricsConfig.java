@@ -0,0 +1,17 @@
+package com.justlife.home.cleaning.config;
+
+import com.justlife.home.cleaning.metrics.QueryCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer(@Value("${sql.log.sample-rate:0}") double sqlSampleRate) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter(sqlSampleRate));
+    }
+}
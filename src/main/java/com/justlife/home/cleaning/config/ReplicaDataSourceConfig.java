@@ -0,0 +1,50 @@
+package com.justlife.home.cleaning.config;
+
+import com.justlife.home.cleaning.datasource.ReadOnlyRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces Boot's single pool with a primary and a replica pool once {@code datasource.replica.url} is set. The
+ * primary is configured by {@code spring.datasource.*} as before, the replica by {@code datasource.replica.*} and
+ * {@code datasource.replica.hikari.*}; see {@link ReadOnlyRoutingDataSource} for which statements go where.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(Environment environment) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty("datasource.replica.url"))
+                .username(environment.getProperty("datasource.replica.username"))
+                .password(environment.getProperty("datasource.replica.password"))
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primary, replica));
+    }
+}
@@ -1,19 +1,41 @@
 package com.justlife.home.cleaning.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.justlife.home.cleaning.availability.SlotBitmap;
+import com.justlife.home.cleaning.codec.AvailabilityHttpMessageConverter;
+import com.justlife.home.cleaning.exception.InvalidRequestException;
+import com.justlife.home.cleaning.request.AutoAssignBookingRequest;
 import com.justlife.home.cleaning.request.BookingRequest;
 import com.justlife.home.cleaning.request.BookingUpdateRequest;
+import com.justlife.home.cleaning.request.RecurringBookingRequest;
+import com.justlife.home.cleaning.response.AvailabilityPageResponse;
 import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.BookingBatchResponse;
+import com.justlife.home.cleaning.response.BookingPageResponse;
 import com.justlife.home.cleaning.response.BookingResponse;
+import com.justlife.home.cleaning.response.SlotSuggestionResponse;
 import com.justlife.home.cleaning.service.BookingService;
+import com.justlife.home.cleaning.stream.AvailabilityBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -24,19 +46,102 @@ import java.util.List;
 @Tag(name = "Booking", description = "APIs related to Booking operations")
 @AllArgsConstructor
 public class BookingController {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_TEAM_SIZE = 3;
+    private static final int MAX_OCCURRENCES = 52;
+    private static final int MAX_BOOKING_PAGE_SIZE = 500;
+    private static final int MAX_SUGGESTION_DAYS = 31;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
 
-    @Operation(summary = "Check availability of cleaning professionals", description = "Check the availability of cleaning professionals for a given date and time")
+    @Operation(summary = "Check availability of cleaning professionals", description = "Check the availability of cleaning professionals for a given date and time. "
+            + "Besides JSON, accepts " + AvailabilityHttpMessageConverter.BINARY_VALUE + " (varint encoded, with a name dictionary) and "
+            + AvailabilityHttpMessageConverter.COLUMNS_VALUE + " (one JSON array per field)")
     @ApiResponse(responseCode = "200", description = "List of available professionals",
+            content = {
+                    @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AvailabilityResponse.class)),
+                    @Content(mediaType = AvailabilityHttpMessageConverter.BINARY_VALUE),
+                    @Content(mediaType = AvailabilityHttpMessageConverter.COLUMNS_VALUE)})
+    @ApiResponse(responseCode = "304", description = "Availability on the date is unchanged since the If-None-Match ETag")
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @GetMapping(value = "/availability", produces = {MediaType.APPLICATION_JSON_VALUE,
+            AvailabilityHttpMessageConverter.BINARY_VALUE, AvailabilityHttpMessageConverter.COLUMNS_VALUE})
+    public ResponseEntity<List<AvailabilityResponse>> checkAvailability(@RequestParam LocalDate date,
+                                                                        @RequestParam(required = false) LocalDateTime startTime,
+                                                                        @RequestParam(required = false, defaultValue = "0") Integer duration,
+                                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                        WebRequest request) {
+        requireSlotStart(startTime);
+        // The date's version identifies the data; the Accept header tells the encodings apart
+        String eTag = bookingService.availabilityVersion(date) + (accept == null ? "" : "." + Integer.toHexString(accept.hashCode()));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(bookingService.checkAvailability(date, startTime, duration));
+    }
+
+    @Operation(summary = "Check availability one page at a time", description = "Returns up to limit professionals ordered by id, starting after the given cursor")
+    @ApiResponse(responseCode = "200", description = "Page of available professionals",
             content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = AvailabilityResponse.class)))
+                    schema = @Schema(implementation = AvailabilityPageResponse.class)))
     @ApiResponse(responseCode = "400", description = "Invalid input")
-    @GetMapping("/availability")
+    @GetMapping("/availability/page")
     @ResponseStatus(HttpStatus.OK)
-    public List<AvailabilityResponse> checkAvailability(@RequestParam LocalDate date,
-                                                        @RequestParam(required = false) LocalDateTime startTime,
-                                                        @RequestParam(required = false, defaultValue = "0") Integer duration) {
-        return bookingService.checkAvailability(date, startTime, duration);
+    public AvailabilityPageResponse checkAvailabilityPage(@RequestParam LocalDate date,
+                                                          @RequestParam(required = false) LocalDateTime startTime,
+                                                          @RequestParam(required = false, defaultValue = "0") Integer duration,
+                                                          @RequestParam(required = false) Long after,
+                                                          @RequestParam(required = false, defaultValue = "100") Integer limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        requireSlotStart(startTime);
+        return bookingService.checkAvailability(date, startTime, duration, after, limit);
+    }
+
+    @Operation(summary = "Stream availability as NDJSON", description = "Writes one available professional per line while reading them")
+    @ApiResponse(responseCode = "200", description = "Available professionals, one JSON object per line",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = AvailabilityResponse.class)))
+    @GetMapping(value = "/availability/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAvailabilityNdjson(@RequestParam LocalDate date,
+                                                                          @RequestParam(required = false) LocalDateTime startTime,
+                                                                          @RequestParam(required = false, defaultValue = "0") Integer duration) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(streamAvailability(date, startTime, duration, true));
+    }
+
+    @Operation(summary = "Stream availability as a JSON array", description = "Writes the array element by element while reading the professionals")
+    @ApiResponse(responseCode = "200", description = "List of available professionals",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = AvailabilityResponse.class)))
+    @GetMapping(value = "/availability/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAvailabilityJson(@RequestParam LocalDate date,
+                                                                        @RequestParam(required = false) LocalDateTime startTime,
+                                                                        @RequestParam(required = false, defaultValue = "0") Integer duration) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(streamAvailability(date, startTime, duration, false));
+    }
+
+    @Operation(summary = "Subscribe to availability changes", description = "Server-sent events for one date: a snapshot event with every available professional, "
+            + "then a changed event after each booking change with the new free slots of every affected professional (empty once fully booked). "
+            + "Subscribers that fall behind are disconnected and should resubscribe for a fresh snapshot")
+    @ApiResponse(responseCode = "200", description = "Stream of snapshot and changed events, each carrying a list of availabilities",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = AvailabilityResponse.class)))
+    @GetMapping(value = "/availability/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeAvailability(@RequestParam LocalDate date) {
+        return availabilityBroadcaster.subscribe(date, () -> bookingService.checkAvailability(date, null, 0));
     }
 
     @Operation(summary = "Create a new booking", description = "Create a new booking with specified details")
@@ -47,18 +152,181 @@ public class BookingController {
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookingResponse createBooking(@RequestBody BookingRequest request) {
+        requireSlotStart(request.getStartTime());
         return bookingService.createBooking(request.getStartTime(), request.getDuration(), request.getProfessionalIds());
     }
 
+    @Operation(summary = "Create a booking with an auto-assigned team", description = "Picks teamSize professionals of one vehicle who are free for the whole booking")
+    @ApiResponse(responseCode = "201", description = "Booking created successfully",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookingResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @ApiResponse(responseCode = "409", description = "No vehicle has enough free professionals")
+    @PostMapping("/auto-assign")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookingResponse assignBooking(@RequestBody AutoAssignBookingRequest request) {
+        if (request.getStartTime() == null || request.getDuration() < 1) {
+            throw new InvalidRequestException("startTime and a positive duration are required");
+        }
+        if (request.getTeamSize() < 1 || request.getTeamSize() > MAX_TEAM_SIZE) {
+            throw new InvalidRequestException("teamSize must be between 1 and " + MAX_TEAM_SIZE);
+        }
+        requireSlotStart(request.getStartTime());
+        return bookingService.assignBooking(request.getStartTime(), request.getDuration(), request.getTeamSize());
+    }
+
+    @Operation(summary = "Suggest free start times", description = "Returns the earliest start times from date (and after, on that date) within the next days at which a team is free for the whole duration, with the team to book")
+    @ApiResponse(responseCode = "200", description = "Start times, earliest first",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = SlotSuggestionResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @GetMapping("/suggestions")
+    @ResponseStatus(HttpStatus.OK)
+    public List<SlotSuggestionResponse> suggestStartTimes(@RequestParam LocalDate date,
+                                                          @RequestParam Integer duration,
+                                                          @RequestParam(required = false, defaultValue = "1") Integer teamSize,
+                                                          @RequestParam(required = false) Long vehicleId,
+                                                          @RequestParam(required = false) List<Long> professionalIds,
+                                                          @RequestParam(required = false) LocalTime after,
+                                                          @RequestParam(required = false, defaultValue = "7") Integer days,
+                                                          @RequestParam(required = false, defaultValue = "5") Integer limit) {
+        if (date.isBefore(LocalDate.now())) {
+            throw new InvalidRequestException("date must not be in the past");
+        }
+        if (duration < 1 || teamSize < 1 || teamSize > MAX_TEAM_SIZE) {
+            throw new InvalidRequestException("duration must be positive and teamSize between 1 and " + MAX_TEAM_SIZE);
+        }
+        if (days < 1 || days > MAX_SUGGESTION_DAYS || limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("days must be between 1 and " + MAX_SUGGESTION_DAYS + " and limit between 1 and " + MAX_SUGGESTIONS);
+        }
+        return bookingService.suggestStartTimes(date, after, duration, teamSize, vehicleId, professionalIds, days, limit);
+    }
+
+    @Operation(summary = "Create bookings in bulk", description = "Creates every booking that is valid and free, including against earlier bookings of the same batch, and reports each request's outcome in order")
+    @ApiResponse(responseCode = "200", description = "Per-booking results",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookingBatchResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingBatchResponse createBookings(@RequestBody List<BookingRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " bookings");
+        }
+        return bookingService.createBookings(requests);
+    }
+
+    @Operation(summary = "Create a recurring booking", description = "Books the same professionals every week or every other week, either for all occurrences or for none")
+    @ApiResponse(responseCode = "201", description = "Bookings created successfully, in date order",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookingResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @ApiResponse(responseCode = "409", description = "A professional is not available for one of the occurrences")
+    @PostMapping("/recurring")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<BookingResponse> createRecurringBooking(@RequestBody RecurringBookingRequest request) {
+        if (request.getStartTime() == null || request.getDuration() < 1 || request.getFrequency() == null
+                || request.getProfessionalIds() == null || request.getProfessionalIds().isEmpty()) {
+            throw new InvalidRequestException("startTime, a positive duration, a frequency and at least one professional are required");
+        }
+        if (request.getOccurrences() < 1 || request.getOccurrences() > MAX_OCCURRENCES) {
+            throw new InvalidRequestException("occurrences must be between 1 and " + MAX_OCCURRENCES);
+        }
+        requireSlotStart(request.getStartTime());
+        return bookingService.createRecurringBooking(request.getStartTime(), request.getDuration(), request.getProfessionalIds(),
+                request.getFrequency(), request.getOccurrences());
+    }
+
     @Operation(summary = "Update an existing booking", description = "Update the details of an existing booking")
     @ApiResponse(responseCode = "200", description = "Booking updated successfully",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = BookingResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid input")
     @ApiResponse(responseCode = "404", description = "Booking not found")
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public BookingResponse updateBooking(@PathVariable Long id, @RequestBody BookingUpdateRequest request) {
+        requireSlotStart(request.getNewStartTime());
         return bookingService.updateBooking(id, request.getNewStartTime(), request.getNewDuration());
     }
-}
 
+    @Operation(summary = "Get a booking", description = "Returns the booking with its professionals and vehicle")
+    @ApiResponse(responseCode = "200", description = "The booking",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookingResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Booking not found")
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingResponse getBooking(@PathVariable Long id) {
+        return bookingService.getBooking(id);
+    }
+
+    @Operation(summary = "Cancel a booking", description = "Deletes the booking and frees its time for every professional")
+    @ApiResponse(responseCode = "200", description = "The cancelled booking",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookingResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Booking not found")
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingResponse cancelBooking(@PathVariable Long id) {
+        return bookingService.cancelBooking(id);
+    }
+
+    @Operation(summary = "List bookings one page at a time", description = "Returns up to limit bookings starting between from (inclusive) and to (exclusive), ordered by id and starting after the given cursor, optionally only those of one professional or vehicle")
+    @ApiResponse(responseCode = "200", description = "Page of bookings",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookingPageResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public BookingPageResponse findBookings(@RequestParam LocalDate from,
+                                            @RequestParam LocalDate to,
+                                            @RequestParam(required = false) Long professionalId,
+                                            @RequestParam(required = false) Long vehicleId,
+                                            @RequestParam(required = false) Long after,
+                                            @RequestParam(required = false, defaultValue = "100") Integer limit) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+        if (limit < 1 || limit > MAX_BOOKING_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_BOOKING_PAGE_SIZE);
+        }
+        return bookingService.findBookings(from.atStartOfDay(), to.atStartOfDay(), professionalId, vehicleId, after, limit);
+    }
+
+    /**
+     * Availability is kept in {@value SlotBitmap#SLOT_MINUTES}-minute slots, so bookings and availability queries must
+     * start on one. Free windows not on the grid are reported shrunk to the whole slots they contain.
+     */
+    private static void requireSlotStart(LocalDateTime startTime) {
+        if (startTime != null && !SlotBitmap.isSlotStart(startTime.toLocalTime())) {
+            throw new InvalidRequestException("startTime must be on a " + SlotBitmap.SLOT_MINUTES + "-minute boundary");
+        }
+    }
+
+    private StreamingResponseBody streamAvailability(LocalDate date, LocalDateTime startTime, int duration, boolean ndjson) {
+        requireSlotStart(startTime);
+        ObjectWriter writer = objectMapper.writerFor(AvailabilityResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                bookingService.streamAvailability(date, startTime, duration, availability -> {
+                    try {
+                        writer.writeValue(generator, availability);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.justlife.home.cleaning.controller;
+
+import com.justlife.home.cleaning.exception.InvalidRequestException;
+import com.justlife.home.cleaning.request.ScheduleGenerationRequest;
+import com.justlife.home.cleaning.request.WorkingHoursTemplate;
+import com.justlife.home.cleaning.response.ScheduleGenerationResponse;
+import com.justlife.home.cleaning.service.ScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/api/schedules")
+@Tag(name = "Schedule", description = "APIs related to professionals' working hours")
+@AllArgsConstructor
+public class ScheduleController {
+    private static final int MAX_DAYS = 366;
+
+    private final ScheduleService scheduleService;
+
+    @Operation(summary = "Generate availability from working hours", description = "Creates one free window per working day and professional between from and to, skipping days that already have availability")
+    @ApiResponse(responseCode = "201", description = "Windows generated",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ScheduleGenerationResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @ApiResponse(responseCode = "404", description = "Cleaning professional not found")
+    @PostMapping("/generate")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ScheduleGenerationResponse generate(@RequestBody ScheduleGenerationRequest request) {
+        if (request.getFrom() == null || request.getTo() == null || request.getTo().isBefore(request.getFrom())) {
+            throw new InvalidRequestException("from and to are required and from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(request.getFrom(), request.getTo()) >= MAX_DAYS) {
+            throw new InvalidRequestException("At most " + MAX_DAYS + " days can be generated at once");
+        }
+        if (request.getTemplates() == null || request.getTemplates().isEmpty()) {
+            throw new InvalidRequestException("At least one working hours template is required");
+        }
+        for (WorkingHoursTemplate template : request.getTemplates()) {
+            if (template.getStartTime() == null || template.getEndTime() == null || !template.getStartTime().isBefore(template.getEndTime())) {
+                throw new InvalidRequestException("Working hours must start before they end");
+            }
+        }
+        return scheduleService.generate(request.getFrom(), request.getTo(), request.getTemplates());
+    }
+}
@@ -0,0 +1,33 @@
+package com.justlife.home.cleaning.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections taken inside a {@code @Transactional(readOnly = true)} transaction to the replica and everything
+ * else to the primary. A read-only method joining a read-write transaction inherits its flag, so reads made while
+ * writing, which must see those writes, stay on the primary. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the connection is only chosen once the
+ * transaction's read-only flag is known.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
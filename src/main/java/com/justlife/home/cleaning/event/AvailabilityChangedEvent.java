@@ -0,0 +1,14 @@
+package com.justlife.home.cleaning.event;
+
+import com.justlife.home.cleaning.model.Availability;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published when bookings change availability rows. Carries the full set of rows on {@code date}
+ * for every affected professional, keyed by professional id.
+ */
+public record AvailabilityChangedEvent(LocalDate date, Map<Long, List<Availability>> availabilities) {
+}
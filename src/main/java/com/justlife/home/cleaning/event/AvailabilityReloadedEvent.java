@@ -0,0 +1,13 @@
+package com.justlife.home.cleaning.event;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Published when a reload of the availability index found rows that changed without an
+ * {@link AvailabilityChangedEvent} in this instance: written by another instance or outside the booking flow.
+ * Carries the ids of the professionals whose free slots or details changed, keyed by date.
+ */
+public record AvailabilityReloadedEvent(Map<LocalDate, Set<Long>> professionalIds) {
+}
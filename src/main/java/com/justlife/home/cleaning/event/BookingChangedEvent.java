@@ -0,0 +1,12 @@
+package com.justlife.home.cleaning.event;
+
+import com.justlife.home.cleaning.model.enums.BookingEventType;
+import com.justlife.home.cleaning.response.BookingResponse;
+
+import java.util.List;
+
+/**
+ * Published when bookings are created or moved, with the bookings as they will be once the transaction commits.
+ */
+public record BookingChangedEvent(BookingEventType type, List<BookingResponse> bookings) {
+}
@@ -0,0 +1,11 @@
+package com.justlife.home.cleaning.exception;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ProfessionalNotFoundException extends RuntimeException {
+
+    public ProfessionalNotFoundException(Long id) {
+        super("Cleaning professional not found with id: " + id);
+    }
+}
@@ -0,0 +1,56 @@
+package com.justlife.home.cleaning.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran as {@code http.server.requests.queries}, tagged like
+ * {@code http.server.requests}, and logs a warning for requests above {@code metrics.queries.warn-threshold} so N+1
+ * regressions surface in production logs.
+ */
+@Component
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${metrics.queries.warn-threshold:20}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = QueryCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            DistributionSummary.builder("http.server.requests.queries")
+                    .description("SQL statements run per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements, above the threshold of {}", request.getMethod(), request.getRequestURI(), statements, warnThreshold);
+            }
+        }
+    }
+}
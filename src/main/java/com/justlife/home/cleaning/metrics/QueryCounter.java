@@ -0,0 +1,55 @@
+package com.justlife.home.cleaning.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open. Queries, lazy loads and
+ * flushes all pass through here; statements sent through {@code JdbcTemplate} do not.
+ * A {@code sampleRate} above zero also logs that fraction of statements to the {@value #SQL_LOGGER} logger at INFO,
+ * in place of {@code spring.jpa.show-sql}.
+ */
+public class QueryCounter implements StatementInspector {
+    public static final String SQL_LOGGER = "com.justlife.home.cleaning.sql";
+
+    private static final Logger sqlLog = LoggerFactory.getLogger(SQL_LOGGER);
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private final double sampleRate;
+
+    public QueryCounter() {
+        this(0);
+    }
+
+    public QueryCounter(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Closes the count on this thread and returns the number of statements seen since {@link #start()}.
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && sqlLog.isInfoEnabled()) {
+            sqlLog.atInfo().addKeyValue("sql", sql).log("Sampled SQL statement");
+        }
+        return sql;
+    }
+}
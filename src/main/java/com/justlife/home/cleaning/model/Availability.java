@@ -10,6 +10,12 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
+@Table(indexes = {
+        // Booking writes and the EXISTS checks: one professional's rows on a date
+        @Index(name = "idx_availability_professional_date", columnList = "cleaning_professional_id, date, status, start_time, end_time"),
+        // Availability reads and the index load: every free row on a date, ordered by professional
+        @Index(name = "idx_availability_date_status", columnList = "date, status, cleaning_professional_id, start_time")
+})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,8 +26,9 @@ public class Availability {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // No foreign key: MySQL cannot partition a table that has one (db/mysql/partition-history.sql)
     @ManyToOne
-    @JoinColumn(name = "cleaning_professional_id")
+    @JoinColumn(name = "cleaning_professional_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonBackReference
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -34,4 +41,8 @@ public class Availability {
 
     private LocalTime startTime;
     private LocalTime endTime;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
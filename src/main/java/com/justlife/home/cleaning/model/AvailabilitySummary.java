@@ -0,0 +1,45 @@
+package com.justlife.home.cleaning.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Precomputed free time of one professional on one day, maintained by
+ * {@link com.justlife.home.cleaning.availability.AvailabilityMaterializer}.
+ */
+@Entity
+@Table(indexes = {
+        // Date-only availability reads: every professional free on a date, ordered by professional
+        @Index(name = "idx_availability_summary_date_professional", columnList = "date, professional_id", unique = true)
+})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class AvailabilitySummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private LocalDate date;
+
+    @Column(name = "professional_id")
+    private Long professionalId;
+
+    private String name;
+
+    private Long vehicleId;
+
+    /**
+     * See {@link com.justlife.home.cleaning.availability.FreeIntervals#format}.
+     */
+    @Column(length = 1000)
+    private String freeIntervals;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+}
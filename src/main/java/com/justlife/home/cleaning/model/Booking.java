@@ -22,7 +22,13 @@ public class Booking {
     @JoinTable(
             name = "booking_professional",
             joinColumns = @JoinColumn(name = "booking_id"),
+            // No foreign key to booking: MySQL cannot partition a table referenced by one (db/mysql/partition-history.sql)
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT),
             inverseJoinColumns = @JoinColumn(name = "professional_id")
     )
     private List<CleaningProfessional> cleaningProfessionals;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
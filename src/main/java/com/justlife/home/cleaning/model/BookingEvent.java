@@ -0,0 +1,43 @@
+package com.justlife.home.cleaning.model;
+
+import com.justlife.home.cleaning.model.enums.BookingEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row written in the same transaction as the booking change it describes, and handed to downstream systems
+ * by {@link com.justlife.home.cleaning.outbox.OutboxRelay} once committed.
+ */
+@Entity
+@Table(indexes = {
+        // Relay scan: unpublished events in insertion order
+        @Index(name = "idx_booking_event_published_id", columnList = "published_at, id")
+})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    private BookingEventType type;
+
+    /**
+     * The booking as returned by the API, serialized as JSON.
+     */
+    @Column(length = 2000)
+    private String payload;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
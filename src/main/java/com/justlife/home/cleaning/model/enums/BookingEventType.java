@@ -0,0 +1,7 @@
+package com.justlife.home.cleaning.model.enums;
+
+public enum BookingEventType {
+    CREATED,
+    UPDATED,
+    CANCELLED
+}
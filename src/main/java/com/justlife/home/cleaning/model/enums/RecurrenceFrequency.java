@@ -0,0 +1,16 @@
+package com.justlife.home.cleaning.model.enums;
+
+public enum RecurrenceFrequency {
+    WEEKLY(1),
+    BIWEEKLY(2);
+
+    private final int weeks;
+
+    RecurrenceFrequency(int weeks) {
+        this.weeks = weeks;
+    }
+
+    public int getWeeks() {
+        return weeks;
+    }
+}
@@ -0,0 +1,14 @@
+package com.justlife.home.cleaning.outbox;
+
+import com.justlife.home.cleaning.model.BookingEvent;
+
+import java.util.List;
+
+/**
+ * Downstream destination of booking events. Events arrive in outbox order, which keeps every booking's events in the
+ * order they were committed. A batch that throws is sent again, together with anything after it, on the next relay
+ * run, so sinks must tolerate duplicates.
+ */
+public interface BookingEventSink {
+    void publish(List<BookingEvent> events);
+}
@@ -0,0 +1,50 @@
+package com.justlife.home.cleaning.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.home.cleaning.event.BookingChangedEvent;
+import com.justlife.home.cleaning.model.BookingEvent;
+import com.justlife.home.cleaning.repository.BookingEventJdbcRepository;
+import com.justlife.home.cleaning.response.BookingResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes one {@code booking_event} row per changed booking, in a single batch before the booking commits, so an event
+ * exists if and only if its booking change does. Delivery happens later in {@link OutboxRelay}.
+ */
+@Component
+@AllArgsConstructor
+public class BookingOutbox {
+    private final BookingEventJdbcRepository bookingEventJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = new ArrayList<>(event.bookings().size());
+        for (BookingResponse booking : event.bookings()) {
+            events.add(BookingEvent.builder()
+                    .bookingId(booking.getId())
+                    .type(event.type())
+                    .payload(toJson(booking))
+                    .createdAt(now)
+                    .build());
+        }
+        bookingEventJdbcRepository.insertAll(events);
+    }
+
+    private String toJson(BookingResponse booking) {
+        try {
+            return objectMapper.writeValueAsString(booking);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize booking " + booking.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.justlife.home.cleaning.outbox;
+
+import com.justlife.home.cleaning.model.BookingEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each event as one line of {@code id type bookingId payload} to {@code outbox.file.path}, for local testing
+ * of consumers.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileBookingEventSink implements BookingEventSink {
+    private final Path path;
+
+    public FileBookingEventSink(@Value("${outbox.file.path:booking-events.log}") Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<BookingEvent> events) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (BookingEvent event : events) {
+                writer.write(event.getId() + " " + event.getType() + " " + event.getBookingId() + " " + event.getPayload());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append booking events to " + path, e);
+        }
+    }
+}
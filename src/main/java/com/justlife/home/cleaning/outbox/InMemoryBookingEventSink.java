@@ -0,0 +1,38 @@
+package com.justlife.home.cleaning.outbox;
+
+import com.justlife.home.cleaning.model.BookingEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Local sink that keeps the last {@value #CAPACITY} events in memory and logs them. Used unless
+ * {@code outbox.sink} selects another one.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryBookingEventSink implements BookingEventSink {
+    private static final int CAPACITY = 10_000;
+
+    private final Deque<BookingEvent> events = new ArrayDeque<>();
+
+    @Override
+    public synchronized void publish(List<BookingEvent> batch) {
+        for (BookingEvent event : batch) {
+            if (events.size() == CAPACITY) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+            log.debug("Booking {} {}: {}", event.getBookingId(), event.getType(), event.getPayload());
+        }
+    }
+
+    public synchronized List<BookingEvent> events() {
+        return List.copyOf(events);
+    }
+}
@@ -0,0 +1,87 @@
+package com.justlife.home.cleaning.outbox;
+
+import com.justlife.home.cleaning.model.BookingEvent;
+import com.justlife.home.cleaning.repository.BookingEventJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves committed booking events to the {@link BookingEventSink} in batches of {@code outbox.relay.batch-size}, oldest
+ * first. A batch is locked, sent and marked published in one read-committed transaction: if the sink fails the batch
+ * stays unpublished and is retried on the next run, and if marking fails after a successful send the batch is sent
+ * again. Delivery is therefore at least once, in commit order per booking. Published events are kept for
+ * {@code outbox.retention} before they are deleted.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    private final BookingEventJdbcRepository bookingEventJdbcRepository;
+    private final BookingEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate relayTransaction;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxRelay(BookingEventJdbcRepository bookingEventJdbcRepository,
+                       BookingEventSink sink,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.retention:7d}") Duration retention) {
+        this.bookingEventJdbcRepository = bookingEventJdbcRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        // Read committed, so locking the oldest events takes no gap locks and bookings keep appending events while a
+        // batch is sent
+        this.relayTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.relayTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${outbox.relay.interval:PT1S}", fixedDelayString = "${outbox.relay.interval:PT1S}")
+    public void run() {
+        try {
+            relay();
+            transactionTemplate.executeWithoutResult(status ->
+                    bookingEventJdbcRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        } catch (RuntimeException e) {
+            log.warn("Booking event relay stopped, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends batches until no unpublished events are left.
+     *
+     * @return number of events sent
+     */
+    public int relay() {
+        int sent = 0;
+        int batch;
+        do {
+            batch = relayTransaction.execute(status -> relayBatch());
+            sent += batch;
+        } while (batch == batchSize);
+        if (sent > 0) {
+            log.debug("Relayed {} booking events", sent);
+        }
+        return sent;
+    }
+
+    private int relayBatch() {
+        List<BookingEvent> events = bookingEventJdbcRepository.lockUnpublished(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.publish(events);
+        bookingEventJdbcRepository.markPublished(events.stream().map(BookingEvent::getId).toList(), LocalDateTime.now());
+        return events.size();
+    }
+}
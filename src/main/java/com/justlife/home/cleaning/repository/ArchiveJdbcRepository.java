@@ -0,0 +1,86 @@
+package com.justlife.home.cleaning.repository;
+
+import io.micrometer.observation.annotation.Observed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Set-based moves of past availability and booking rows into their archive tables. Every method covers the dates
+ * {@code [from, to)} in single statements; copies first clear the archive range, so a copy repeated after a failed
+ * removal does not duplicate rows.
+ */
+@Repository
+@AllArgsConstructor
+@Observed(name = "jdbc.repository.invocations")
+public class ArchiveJdbcRepository {
+    private static final String AVAILABILITY_COLUMNS = "id, cleaning_professional_id, date, status, start_time, end_time, version";
+    private static final String BOOKING_COLUMNS = "id, start_date_time, end_date_time, version";
+    private static final String BOOKINGS_IN_RANGE = "SELECT id FROM booking WHERE start_date_time >= ? AND start_date_time < ?";
+    private static final String ARCHIVED_BOOKINGS_IN_RANGE = "SELECT id FROM booking_archive WHERE start_date_time >= ? AND start_date_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalDate findOldestAvailabilityDate() {
+        Date oldest = jdbcTemplate.queryForObject("SELECT MIN(date) FROM availability", Date.class);
+        return oldest == null ? null : oldest.toLocalDate();
+    }
+
+    public LocalDate findOldestBookingDate() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(start_date_time) FROM booking", Timestamp.class);
+        return oldest == null ? null : oldest.toLocalDateTime().toLocalDate();
+    }
+
+    /**
+     * @return number of availability rows copied
+     */
+    public int copyAvailability(LocalDate from, LocalDate to) {
+        jdbcTemplate.update("DELETE FROM availability_archive WHERE date >= ? AND date < ?", Date.valueOf(from), Date.valueOf(to));
+        return jdbcTemplate.update("INSERT INTO availability_archive (" + AVAILABILITY_COLUMNS + ") SELECT " + AVAILABILITY_COLUMNS +
+                " FROM availability WHERE date >= ? AND date < ?", Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Deletes the availability rows and their summaries.
+     */
+    public void deleteAvailability(LocalDate from, LocalDate to) {
+        jdbcTemplate.update("DELETE FROM availability WHERE date >= ? AND date < ?", Date.valueOf(from), Date.valueOf(to));
+        deleteSummaries(from, to);
+    }
+
+    public void deleteSummaries(LocalDate from, LocalDate to) {
+        jdbcTemplate.update("DELETE FROM availability_summary WHERE date >= ? AND date < ?", Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Copies the bookings starting in the range together with their professional assignments.
+     *
+     * @return number of bookings copied
+     */
+    public int copyBookings(LocalDate from, LocalDate to) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.atStartOfDay());
+        jdbcTemplate.update("DELETE FROM booking_professional_archive WHERE booking_id IN (" + ARCHIVED_BOOKINGS_IN_RANGE + ")", start, end);
+        jdbcTemplate.update("DELETE FROM booking_archive WHERE start_date_time >= ? AND start_date_time < ?", start, end);
+        int copied = jdbcTemplate.update("INSERT INTO booking_archive (" + BOOKING_COLUMNS + ") SELECT " + BOOKING_COLUMNS +
+                " FROM booking WHERE start_date_time >= ? AND start_date_time < ?", start, end);
+        jdbcTemplate.update("INSERT INTO booking_professional_archive (booking_id, professional_id)" +
+                " SELECT booking_id, professional_id FROM booking_professional WHERE booking_id IN (" + BOOKINGS_IN_RANGE + ")", start, end);
+        return copied;
+    }
+
+    public void deleteBookingAssignments(LocalDate from, LocalDate to) {
+        jdbcTemplate.update("DELETE FROM booking_professional WHERE booking_id IN (" + BOOKINGS_IN_RANGE + ")",
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+    }
+
+    public void deleteBookings(LocalDate from, LocalDate to) {
+        deleteBookingAssignments(from, to);
+        jdbcTemplate.update("DELETE FROM booking WHERE start_date_time >= ? AND start_date_time < ?",
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+    }
+}
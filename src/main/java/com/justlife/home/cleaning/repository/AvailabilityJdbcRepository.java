@@ -0,0 +1,105 @@
+package com.justlife.home.cleaning.repository;
+
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import io.micrometer.observation.annotation.Observed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk writes of availability rows over plain JDBC. Rows are sent as multi-row {@code INSERT} statements, batched,
+ * so each round trip carries {@value #ROWS_PER_STATEMENT} rows whether or not the driver rewrites batches itself.
+ */
+@Repository
+@AllArgsConstructor
+@Observed(name = "jdbc.repository.invocations")
+public class AvailabilityJdbcRepository {
+    static final int ROWS_PER_STATEMENT = 500;
+    private static final String INSERT = "INSERT INTO availability (cleaning_professional_id, date, status, start_time, end_time, version) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, 0)";
+    private static final String FULL_INSERT = insertOf(ROWS_PER_STATEMENT);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record NewAvailability(long professionalId, LocalDate date, AvailabilityStatus status, LocalTime startTime, LocalTime endTime) {
+    }
+
+    public record ProfessionalDay(long professionalId, LocalDate date) {
+    }
+
+    /**
+     * Professional and date pairs in {@code [from, to]} that already have at least one availability row.
+     */
+    public Set<ProfessionalDay> findProfessionalDays(Collection<Long> professionalIds, LocalDate from, LocalDate to) {
+        Set<ProfessionalDay> days = new HashSet<>();
+        namedParameterJdbcTemplate.query("SELECT DISTINCT cleaning_professional_id, date FROM availability" +
+                        " WHERE cleaning_professional_id IN (:ids) AND date BETWEEN :from AND :to",
+                new MapSqlParameterSource()
+                        .addValue("ids", professionalIds)
+                        .addValue("from", Date.valueOf(from))
+                        .addValue("to", Date.valueOf(to)),
+                rs -> {
+                    days.add(new ProfessionalDay(rs.getLong(1), rs.getDate(2).toLocalDate()));
+                });
+        return days;
+    }
+
+    /**
+     * A fingerprint of the date's rows that every booking and generated schedule moves: the row count, the sum of the
+     * optimistic-lock versions, which every update raises, and the highest id, which every insert raises.
+     */
+    public String findVersion(LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(version), 0), COALESCE(MAX(id), 0) FROM availability WHERE date = ?",
+                (rs, rowNum) -> Long.toString(rs.getLong(1), 36) + "." + Long.toString(rs.getLong(2), 36) + "." + Long.toString(rs.getLong(3), 36),
+                Date.valueOf(date));
+    }
+
+    public void insertAll(List<NewAvailability> availabilities) {
+        List<Object[]> statements = new ArrayList<>();
+        int full = availabilities.size() / ROWS_PER_STATEMENT * ROWS_PER_STATEMENT;
+        for (int from = 0; from < full; from += ROWS_PER_STATEMENT) {
+            statements.add(parametersOf(availabilities.subList(from, from + ROWS_PER_STATEMENT)));
+        }
+        if (!statements.isEmpty()) {
+            jdbcTemplate.batchUpdate(FULL_INSERT, statements);
+        }
+        if (full < availabilities.size()) {
+            List<NewAvailability> remainder = availabilities.subList(full, availabilities.size());
+            jdbcTemplate.update(insertOf(remainder.size()), parametersOf(remainder));
+        }
+    }
+
+    private static String insertOf(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + rows * (ROW.length() + 2)).append(INSERT);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.toString();
+    }
+
+    private static Object[] parametersOf(List<NewAvailability> availabilities) {
+        Object[] parameters = new Object[availabilities.size() * 5];
+        int i = 0;
+        for (NewAvailability availability : availabilities) {
+            parameters[i++] = availability.professionalId();
+            parameters[i++] = Date.valueOf(availability.date());
+            parameters[i++] = availability.status().name();
+            parameters[i++] = Time.valueOf(availability.startTime());
+            parameters[i++] = Time.valueOf(availability.endTime());
+        }
+        return parameters;
+    }
+}
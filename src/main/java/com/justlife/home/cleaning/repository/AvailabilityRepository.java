@@ -2,13 +2,66 @@ package com.justlife.home.cleaning.repository;
 
 import com.justlife.home.cleaning.model.Availability;
 import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.projection.AvailabilityWindow;
+import com.justlife.home.cleaning.repository.projection.ProfessionalWindow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
+    int STREAM_FETCH_SIZE = 500;
+
+    String FREE_WINDOWS = "SELECT new com.justlife.home.cleaning.repository.projection.ProfessionalWindow(cp.id, cp.name, a.startTime, a.endTime)" +
+            " FROM Availability a JOIN a.cleaningProfessional cp WHERE a.date = :date AND a.status = 'AVAILABLE'";
+    String COVERING = " AND EXISTS (SELECT b FROM Availability b WHERE b.cleaningProfessional = cp AND b.date = :date" +
+            " AND b.status = 'AVAILABLE' AND b.startTime <= :startTime AND b.endTime >= :endTime)";
+    String BY_PROFESSIONAL = " ORDER BY cp.id, a.startTime";
+
     List<Availability> findByCleaningProfessionalIdAndDate(Long cleaningProfessionalId, LocalDate date);
 
     List<Availability> findByDateAndStatus(LocalDate date, AvailabilityStatus status);
+
+    @Query("SELECT a FROM Availability a" +
+            " WHERE a.cleaningProfessional.id IN :professionalIds AND a.date IN :dates" +
+            " ORDER BY a.startTime")
+    List<Availability> findByProfessionalIdsAndDates(@Param("professionalIds") Collection<Long> professionalIds,
+                                                     @Param("dates") Collection<LocalDate> dates);
+
+    @Query("SELECT a.cleaningProfessional.id AS professionalId, a.date AS date, a.status AS status," +
+            " a.startTime AS startTime, a.endTime AS endTime" +
+            " FROM Availability a WHERE a.date >= :from")
+    List<AvailabilityWindow> findWindowsFrom(@Param("from") LocalDate from);
+
+    @Query("SELECT a.cleaningProfessional.id AS professionalId, a.date AS date, a.status AS status," +
+            " a.startTime AS startTime, a.endTime AS endTime" +
+            " FROM Availability a WHERE a.date = :date")
+    List<AvailabilityWindow> findWindowsOn(@Param("date") LocalDate date);
+
+    @Query(FREE_WINDOWS + BY_PROFESSIONAL)
+    List<ProfessionalWindow> findFreeWindows(@Param("date") LocalDate date);
+
+    @Query(FREE_WINDOWS + " AND cp.id IN :professionalIds" + BY_PROFESSIONAL)
+    List<ProfessionalWindow> findFreeWindows(@Param("date") LocalDate date, @Param("professionalIds") Collection<Long> professionalIds);
+
+    @Query(FREE_WINDOWS + COVERING + BY_PROFESSIONAL)
+    List<ProfessionalWindow> findFreeWindowsCovering(@Param("date") LocalDate date, @Param("startTime") LocalTime startTime,
+                                                     @Param("endTime") LocalTime endTime);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(FREE_WINDOWS + BY_PROFESSIONAL)
+    Stream<ProfessionalWindow> streamFreeWindows(@Param("date") LocalDate date);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(FREE_WINDOWS + COVERING + BY_PROFESSIONAL)
+    Stream<ProfessionalWindow> streamFreeWindowsCovering(@Param("date") LocalDate date, @Param("startTime") LocalTime startTime,
+                                                         @Param("endTime") LocalTime endTime);
 }
@@ -0,0 +1,111 @@
+package com.justlife.home.cleaning.repository;
+
+import com.justlife.home.cleaning.availability.FreeIntervals;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.response.TimeSlots;
+import io.micrometer.observation.annotation.Observed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bulk recomputation of {@code availability_summary} from the availability rows. Rows are read in one ordered pass
+ * and summaries written in JDBC batches, so a rebuild never holds more than one professional's day in memory.
+ */
+@Repository
+@AllArgsConstructor
+@Observed(name = "jdbc.repository.invocations")
+public class AvailabilitySummaryJdbcRepository {
+    private static final int BATCH_SIZE = 1000;
+    private static final String SELECT_ROWS = "SELECT a.date, a.cleaning_professional_id, cp.name, cp.vehicle_id, a.status, a.start_time, a.end_time" +
+            " FROM availability a JOIN cleaning_professional cp ON cp.id = a.cleaning_professional_id";
+    private static final String BY_DATE_AND_PROFESSIONAL = " ORDER BY a.date, a.cleaning_professional_id";
+    private static final String INSERT_SUMMARY = "INSERT INTO availability_summary (date, professional_id, name, vehicle_id, free_intervals) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Every date that has availability rows or summaries, so a full rebuild also clears summaries left behind by
+     * removed rows.
+     */
+    public List<LocalDate> findDates() {
+        return jdbcTemplate.queryForList("SELECT date FROM availability UNION SELECT date FROM availability_summary ORDER BY 1", Date.class)
+                .stream()
+                .map(Date::toLocalDate)
+                .toList();
+    }
+
+    /**
+     * Replaces the summaries of one date. Call inside a transaction so readers keep seeing the previous summaries
+     * until it commits.
+     *
+     * @return number of summaries written
+     */
+    public int replace(LocalDate date) {
+        jdbcTemplate.update("DELETE FROM availability_summary WHERE date = ?", Date.valueOf(date));
+        SummaryWriter writer = new SummaryWriter();
+        jdbcTemplate.query(SELECT_ROWS + " WHERE a.date = ?" + BY_DATE_AND_PROFESSIONAL, writer, Date.valueOf(date));
+        return writer.finish();
+    }
+
+    /**
+     * Folds consecutive rows of the same professional and date into one summary row.
+     */
+    private class SummaryWriter implements RowCallbackHandler {
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private Object[] current;
+        private FreeIntervals intervals;
+        private int written;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            Date date = rs.getDate("date");
+            long professionalId = rs.getLong("cleaning_professional_id");
+            if (current == null || !current[0].equals(date) || !Objects.equals(current[1], professionalId)) {
+                flushCurrent();
+                current = new Object[]{date, professionalId, rs.getString("name"), rs.getObject("vehicle_id", Long.class), null};
+                intervals = new FreeIntervals();
+            }
+            intervals.add(AvailabilityStatus.valueOf(rs.getString("status")),
+                    rs.getTime("start_time").toLocalTime(), rs.getTime("end_time").toLocalTime());
+        }
+
+        int finish() {
+            flushCurrent();
+            flushBatch();
+            return written;
+        }
+
+        private void flushCurrent() {
+            if (current == null) {
+                return;
+            }
+            List<TimeSlots> free = intervals.merge();
+            if (!free.isEmpty()) {
+                current[4] = FreeIntervals.format(free);
+                batch.add(current);
+                if (batch.size() == BATCH_SIZE) {
+                    flushBatch();
+                }
+            }
+            current = null;
+        }
+
+        private void flushBatch() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SUMMARY, batch);
+                written += batch.size();
+                batch.clear();
+            }
+        }
+    }
+}
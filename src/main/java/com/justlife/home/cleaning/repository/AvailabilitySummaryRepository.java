@@ -0,0 +1,20 @@
+package com.justlife.home.cleaning.repository;
+
+import com.justlife.home.cleaning.model.AvailabilitySummary;
+import com.justlife.home.cleaning.repository.projection.ProfessionalFreeIntervals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface AvailabilitySummaryRepository extends JpaRepository<AvailabilitySummary, Long> {
+
+    @Query("SELECT new com.justlife.home.cleaning.repository.projection.ProfessionalFreeIntervals(s.professionalId, s.name, s.freeIntervals)" +
+            " FROM AvailabilitySummary s WHERE s.date = :date ORDER BY s.professionalId")
+    List<ProfessionalFreeIntervals> findFreeIntervals(@Param("date") LocalDate date);
+
+    List<AvailabilitySummary> findByDateAndProfessionalIdIn(LocalDate date, Collection<Long> professionalIds);
+}
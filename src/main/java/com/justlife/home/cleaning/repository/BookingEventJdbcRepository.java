@@ -0,0 +1,58 @@
+package com.justlife.home.cleaning.repository;
+
+import com.justlife.home.cleaning.model.BookingEvent;
+import com.justlife.home.cleaning.model.enums.BookingEventType;
+import io.micrometer.observation.annotation.Observed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@AllArgsConstructor
+@Observed(name = "jdbc.repository.invocations")
+public class BookingEventJdbcRepository {
+    private static final String INSERT_EVENT = "INSERT INTO booking_event (booking_id, type, payload, created_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_UNPUBLISHED = "SELECT id, booking_id, type, payload, created_at FROM booking_event" +
+            " WHERE published_at IS NULL ORDER BY id LIMIT ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public void insertAll(List<BookingEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (statement, event) -> {
+            statement.setLong(1, event.getBookingId());
+            statement.setString(2, event.getType().name());
+            statement.setString(3, event.getPayload());
+            statement.setTimestamp(4, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+
+    /**
+     * Returns the oldest unpublished events and locks them until the transaction ends, so relays on other instances
+     * wait instead of sending the same events out of order.
+     */
+    public List<BookingEvent> lockUnpublished(int limit) {
+        return jdbcTemplate.query(SELECT_UNPUBLISHED, (rs, rowNum) -> BookingEvent.builder()
+                .id(rs.getLong("id"))
+                .bookingId(rs.getLong("booking_id"))
+                .type(BookingEventType.valueOf(rs.getString("type")))
+                .payload(rs.getString("payload"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build(), limit);
+    }
+
+    public void markPublished(List<Long> ids, LocalDateTime publishedAt) {
+        namedParameterJdbcTemplate.update("UPDATE booking_event SET published_at = :publishedAt WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids).addValue("publishedAt", Timestamp.valueOf(publishedAt)));
+    }
+
+    public int deletePublishedBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM booking_event WHERE published_at < ?", Timestamp.valueOf(before));
+    }
+}
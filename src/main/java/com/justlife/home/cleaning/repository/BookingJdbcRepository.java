@@ -0,0 +1,67 @@
+package com.justlife.home.cleaning.repository;
+
+import com.justlife.home.cleaning.model.Booking;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import io.micrometer.observation.annotation.Observed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk inserts of bookings over plain JDBC. Hibernate cannot batch inserts of {@code IDENTITY} ids, so batch uploads
+ * write the booking and booking_professional rows here in two batched statements instead.
+ */
+@Repository
+@AllArgsConstructor
+@Observed(name = "jdbc.repository.invocations")
+public class BookingJdbcRepository {
+    private static final String INSERT_BOOKING = "INSERT INTO booking (start_date_time, end_date_time, version) VALUES (?, ?, 0)";
+    private static final String INSERT_BOOKING_PROFESSIONAL = "INSERT INTO booking_professional (booking_id, professional_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the bookings with their professionals and sets the generated ids and initial version on them.
+     */
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS)) {
+                for (Booking booking : bookings) {
+                    statement.setTimestamp(1, Timestamp.valueOf(booking.getStartDateTime()));
+                    statement.setTimestamp(2, Timestamp.valueOf(booking.getEndDateTime()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Booking booking : bookings) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Missing generated id for booking starting at " + booking.getStartDateTime());
+                        }
+                        booking.setId(keys.getLong(1));
+                        booking.setVersion(0L);
+                    }
+                }
+            }
+            return null;
+        });
+
+        List<Object[]> professionalRows = new ArrayList<>();
+        for (Booking booking : bookings) {
+            for (CleaningProfessional professional : booking.getCleaningProfessionals()) {
+                professionalRows.add(new Object[]{booking.getId(), professional.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOKING_PROFESSIONAL, professionalRows);
+    }
+}
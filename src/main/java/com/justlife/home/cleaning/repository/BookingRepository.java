@@ -1,7 +1,36 @@
 package com.justlife.home.cleaning.repository;
 
 import com.justlife.home.cleaning.model.Booking;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    @Query("SELECT cp.id FROM Booking b JOIN b.cleaningProfessionals cp WHERE b.id = :bookingId")
+    List<Long> findProfessionalIdsByBookingId(@Param("bookingId") Long bookingId);
+
+    @Query("SELECT DISTINCT b FROM Booking b JOIN FETCH b.cleaningProfessionals cp JOIN FETCH cp.vehicle WHERE b.id = :id")
+    Optional<Booking> findWithProfessionalsById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT b FROM Booking b JOIN FETCH b.cleaningProfessionals cp JOIN FETCH cp.vehicle WHERE b.id IN :ids ORDER BY b.id")
+    List<Booking> findAllWithProfessionalsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of the bookings starting in [from, to) after {@code afterId}, in id order, optionally only those of one
+     * professional or one vehicle. Load the bookings themselves with {@link #findAllWithProfessionalsByIdIn}.
+     */
+    @Query("SELECT b.id FROM Booking b WHERE b.startDateTime >= :from AND b.startDateTime < :to AND b.id > :afterId" +
+            " AND (:professionalId IS NULL OR EXISTS (SELECT 1 FROM b.cleaningProfessionals cp WHERE cp.id = :professionalId))" +
+            " AND (:vehicleId IS NULL OR EXISTS (SELECT 1 FROM b.cleaningProfessionals cp WHERE cp.vehicle.id = :vehicleId))" +
+            " ORDER BY b.id")
+    List<Long> findIds(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                       @Param("professionalId") Long professionalId, @Param("vehicleId") Long vehicleId,
+                       @Param("afterId") Long afterId, Limit limit);
 }
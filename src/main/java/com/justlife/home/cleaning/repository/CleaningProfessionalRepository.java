@@ -1,26 +1,41 @@
 package com.justlife.home.cleaning.repository;
 
 import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.repository.projection.ProfessionalSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CleaningProfessionalRepository extends JpaRepository<CleaningProfessional, Long> {
 
-    @Query("SELECT cp FROM CleaningProfessional cp " +
-            "JOIN cp.availabilities a " +
-            "WHERE a.date = :date " +
-            "AND a.status = 'AVAILABLE'")
-    List<CleaningProfessional> findAvailableProfessionalsOnDate(@Param("date") LocalDate date);
-    @Query("SELECT cp FROM CleaningProfessional cp JOIN cp.availabilities a WHERE a.date = :date" +
-            " AND a.status = 'AVAILABLE'" +
-            " AND a.startTime <= :startTime" +
-            " AND a.endTime >= :endTime" )
-    List<CleaningProfessional> findAvailableProfessionals(LocalDate date, LocalTime startTime, LocalTime endTime);
+    String FREE_ON_DATE = "EXISTS (SELECT a FROM Availability a WHERE a.cleaningProfessional = cp" +
+            " AND a.date = :date AND a.status = 'AVAILABLE')";
+    String FREE_DURING = "EXISTS (SELECT a FROM Availability a WHERE a.cleaningProfessional = cp" +
+            " AND a.date = :date AND a.status = 'AVAILABLE' AND a.startTime <= :startTime AND a.endTime >= :endTime)";
+
+    @Query("SELECT cp.id FROM CleaningProfessional cp WHERE cp.id > :afterId AND " + FREE_ON_DATE + " ORDER BY cp.id")
+    List<Long> findAvailableProfessionalIdsOnDateAfter(@Param("date") LocalDate date, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT cp.id FROM CleaningProfessional cp WHERE cp.id > :afterId AND " + FREE_DURING + " ORDER BY cp.id")
+    List<Long> findAvailableProfessionalIdsAfter(@Param("date") LocalDate date, @Param("startTime") LocalTime startTime,
+                                                 @Param("endTime") LocalTime endTime, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT cp FROM CleaningProfessional cp LEFT JOIN FETCH cp.vehicle WHERE cp.id IN :ids")
+    List<CleaningProfessional> findAllWithVehicleByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT cp.id FROM CleaningProfessional cp ORDER BY cp.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT cp.id AS id, cp.name AS name, v.id AS vehicleId FROM CleaningProfessional cp LEFT JOIN cp.vehicle v")
+    List<ProfessionalSummary> findAllSummaries();
+
+    @Query("SELECT cp.id AS id, cp.name AS name, v.id AS vehicleId FROM CleaningProfessional cp LEFT JOIN cp.vehicle v WHERE cp.id IN :ids")
+    List<ProfessionalSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
 }
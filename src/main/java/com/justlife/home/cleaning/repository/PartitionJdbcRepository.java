@@ -0,0 +1,70 @@
+package com.justlife.home.cleaning.repository;
+
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Monthly range partitions of MySQL tables, as laid out by {@code db/mysql/partition-history.sql}: partition
+ * {@code pYYYYMM} holds the rows before the first day of the following month and {@code pmax} everything later.
+ * Other databases, and tables that are not partitioned, report no partitions.
+ */
+@Repository
+@Observed(name = "jdbc.repository.invocations")
+public class PartitionJdbcRepository {
+    public static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String SELECT_PARTITIONS = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS" +
+            " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean supported;
+
+    public PartitionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return MONTH_NAME.format(month);
+    }
+
+    public List<String> findPartitions(String table) {
+        if (!isSupported()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class, table);
+    }
+
+    /**
+     * Drops a month in constant time, whatever its row count. DDL: commits any open transaction.
+     */
+    public void dropPartition(String table, YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partitionName(month));
+    }
+
+    /**
+     * Splits the given months, in ascending order and all after the last month partition, off {@value #MAX_PARTITION}.
+     * Only the rows already in {@value #MAX_PARTITION} are copied, so this is cheap while it holds no future dates.
+     */
+    public void addPartitions(String table, List<YearMonth> months) {
+        String partitions = months.stream()
+                .map(month -> "PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), ")
+                .collect(Collectors.joining());
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" + partitions +
+                "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    private boolean isSupported() {
+        if (supported == null) {
+            supported = "MySQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        }
+        return supported;
+    }
+}
@@ -0,0 +1,18 @@
+package com.justlife.home.cleaning.repository.projection;
+
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public interface AvailabilityWindow {
+    Long getProfessionalId();
+
+    LocalDate getDate();
+
+    AvailabilityStatus getStatus();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+}
@@ -0,0 +1,7 @@
+package com.justlife.home.cleaning.repository.projection;
+
+/**
+ * The materialized free intervals of one professional on one day, read without managing the summary entity.
+ */
+public record ProfessionalFreeIntervals(Long professionalId, String name, String freeIntervals) {
+}
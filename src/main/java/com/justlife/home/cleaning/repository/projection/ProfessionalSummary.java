@@ -0,0 +1,9 @@
+package com.justlife.home.cleaning.repository.projection;
+
+public interface ProfessionalSummary {
+    Long getId();
+
+    String getName();
+
+    Long getVehicleId();
+}
@@ -0,0 +1,10 @@
+package com.justlife.home.cleaning.repository.projection;
+
+import java.time.LocalTime;
+
+/**
+ * One free availability window together with the professional it belongs to. A class-based projection built by a
+ * JPQL constructor expression, which unlike an interface projection needs no proxy per row.
+ */
+public record ProfessionalWindow(Long professionalId, String name, LocalTime startTime, LocalTime endTime) {
+}
@@ -0,0 +1,14 @@
+package com.justlife.home.cleaning.request;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class AutoAssignBookingRequest {
+
+    private LocalDateTime startTime;
+    private int duration;
+    private int teamSize;
+}
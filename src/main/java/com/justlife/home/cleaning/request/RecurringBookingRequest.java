@@ -0,0 +1,21 @@
+package com.justlife.home.cleaning.request;
+import com.justlife.home.cleaning.model.enums.RecurrenceFrequency;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A booking repeated every week or every other week, {@code occurrences} times in total starting at {@code startTime}.
+ */
+@Data
+@NoArgsConstructor
+public class RecurringBookingRequest {
+
+    private LocalDateTime startTime;
+    private int duration;
+    private List<Long> professionalIds;
+    private RecurrenceFrequency frequency;
+    private int occurrences;
+}
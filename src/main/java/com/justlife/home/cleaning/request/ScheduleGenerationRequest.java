@@ -0,0 +1,15 @@
+package com.justlife.home.cleaning.request;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ScheduleGenerationRequest {
+
+    private LocalDate from;
+    private LocalDate to;
+    private List<WorkingHoursTemplate> templates;
+}
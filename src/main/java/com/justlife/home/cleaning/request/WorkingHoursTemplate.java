@@ -0,0 +1,22 @@
+package com.justlife.home.cleaning.request;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Daily working hours for the listed professionals, or for every professional no other template lists when
+ * {@code professionalIds} is empty.
+ */
+@Data
+@NoArgsConstructor
+public class WorkingHoursTemplate {
+
+    private List<Long> professionalIds;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Set<DayOfWeek> daysOff;
+}
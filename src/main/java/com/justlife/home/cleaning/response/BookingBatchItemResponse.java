@@ -0,0 +1,18 @@
+package com.justlife.home.cleaning.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one request of a batch, at the same position as the request. {@code status} is the HTTP status the
+ * request would have received on its own.
+ */
+@Data
+@Builder
+public class BookingBatchItemResponse {
+
+    private int index;
+    private int status;
+    private BookingResponse booking;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.justlife.home.cleaning.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BookingBatchResponse {
+
+    private int created;
+    private int failed;
+    private List<BookingBatchItemResponse> results;
+}
@@ -0,0 +1,14 @@
+package com.justlife.home.cleaning.response;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BookingPageResponse {
+
+    private List<BookingResponse> bookings;
+    /** Pass as {@code after} to fetch the next page; {@code null} on the last page. */
+    private Long nextCursor;
+}
@@ -0,0 +1,15 @@
+package com.justlife.home.cleaning.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ScheduleGenerationResponse {
+
+    private int professionals;
+    private int created;
+    private int skipped;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+}
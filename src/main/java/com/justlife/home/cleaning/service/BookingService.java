@@ -1,14 +1,32 @@
 package com.justlife.home.cleaning.service;
 
+import com.justlife.home.cleaning.model.enums.RecurrenceFrequency;
+import com.justlife.home.cleaning.request.BookingRequest;
+import com.justlife.home.cleaning.response.AvailabilityPageResponse;
 import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.BookingBatchResponse;
+import com.justlife.home.cleaning.response.BookingPageResponse;
 import com.justlife.home.cleaning.response.BookingResponse;
+import com.justlife.home.cleaning.response.SlotSuggestionResponse;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     List<AvailabilityResponse> checkAvailability(LocalDate date, LocalDateTime startTime, int duration);
+    AvailabilityPageResponse checkAvailability(LocalDate date, LocalDateTime startTime, int duration, Long afterProfessionalId, int limit);
+    void streamAvailability(LocalDate date, LocalDateTime startTime, int duration, Consumer<AvailabilityResponse> consumer);
     BookingResponse createBooking(LocalDateTime startTime, int duration, List<Long> professionalIds);
+    String availabilityVersion(LocalDate date);
+    BookingResponse assignBooking(LocalDateTime startTime, int duration, int teamSize);
+    List<SlotSuggestionResponse> suggestStartTimes(LocalDate date, LocalTime after, int duration, int teamSize, Long vehicleId, List<Long> professionalIds, int days, int limit);
+    BookingBatchResponse createBookings(List<BookingRequest> requests);
+    List<BookingResponse> createRecurringBooking(LocalDateTime startTime, int duration, List<Long> professionalIds, RecurrenceFrequency frequency, int occurrences);
     BookingResponse updateBooking(Long bookingId, LocalDateTime newStartTime, int newDuration);
+    BookingResponse getBooking(Long bookingId);
+    BookingResponse cancelBooking(Long bookingId);
+    BookingPageResponse findBookings(LocalDateTime from, LocalDateTime to, Long professionalId, Long vehicleId, Long afterId, int limit);
 }
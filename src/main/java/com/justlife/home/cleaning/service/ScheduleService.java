@@ -0,0 +1,11 @@
+package com.justlife.home.cleaning.service;
+
+import com.justlife.home.cleaning.request.WorkingHoursTemplate;
+import com.justlife.home.cleaning.response.ScheduleGenerationResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ScheduleService {
+    ScheduleGenerationResponse generate(LocalDate from, LocalDate to, List<WorkingHoursTemplate> templates);
+}
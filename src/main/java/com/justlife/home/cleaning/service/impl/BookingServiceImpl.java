@@ -1,60 +1,169 @@
 package com.justlife.home.cleaning.service.impl;
 
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.availability.AvailabilityMaterializer;
+import com.justlife.home.cleaning.availability.AvailabilityVersions;
+import com.justlife.home.cleaning.availability.DaySegments;
+import com.justlife.home.cleaning.availability.FreeIntervals;
+import com.justlife.home.cleaning.availability.ProfessionalInfo;
+import com.justlife.home.cleaning.availability.ProfessionalSlots;
+import com.justlife.home.cleaning.availability.SlotBitmap;
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.event.BookingChangedEvent;
 import com.justlife.home.cleaning.exception.AvailabilityException;
 import com.justlife.home.cleaning.exception.BookingNotFoundException;
 import com.justlife.home.cleaning.exception.DifferentVehicleException;
+import com.justlife.home.cleaning.exception.InvalidRequestException;
+import com.justlife.home.cleaning.exception.ProfessionalNotFoundException;
 import com.justlife.home.cleaning.model.Availability;
 import com.justlife.home.cleaning.model.Booking;
 import com.justlife.home.cleaning.model.CleaningProfessional;
-import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.model.enums.BookingEventType;
+import com.justlife.home.cleaning.model.enums.RecurrenceFrequency;
 import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.repository.BookingJdbcRepository;
 import com.justlife.home.cleaning.repository.BookingRepository;
 import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.projection.ProfessionalFreeIntervals;
+import com.justlife.home.cleaning.repository.projection.ProfessionalWindow;
+import com.justlife.home.cleaning.request.BookingRequest;
+import com.justlife.home.cleaning.response.AvailabilityPageResponse;
 import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.BookingBatchItemResponse;
+import com.justlife.home.cleaning.response.BookingBatchResponse;
+import com.justlife.home.cleaning.response.BookingPageResponse;
 import com.justlife.home.cleaning.response.BookingResponse;
+import com.justlife.home.cleaning.response.SlotSuggestionResponse;
 import com.justlife.home.cleaning.response.TimeSlots;
 import com.justlife.home.cleaning.service.BookingService;
+import io.micrometer.observation.annotation.Observed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.time.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @AllArgsConstructor
 @Transactional
+@Observed(name = "booking.service")
 public class BookingServiceImpl implements BookingService {
+    static final int MAX_ASSIGNMENT_CANDIDATES = 3;
+
     private final CleaningProfessionalRepository cleaningProfessionalRepository;
     private final AvailabilityRepository availabilityRepository;
     private final BookingRepository bookingRepository;
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityMaterializer availabilityMaterializer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AvailabilityVersions availabilityVersions;
+
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<AvailabilityResponse> checkAvailability(LocalDate date, LocalDateTime startTime, int duration) {
-        log.info("fetching cleaning professionals availabilities...");
-        List<CleaningProfessional> availableProfessionals;
+        log.debug("fetching cleaning professionals availabilities...");
+        if (availabilityIndex.covers(date)) {
+            return streamIndexedAvailability(date, startTime, duration, null).toList();
+        }
+        if (startTime == null && availabilityMaterializer.isReady()) {
+            return availabilityMaterializer.findByDate(date).stream().map(this::mapSummaryToAvailabilityResponse).toList();
+        }
+        List<ProfessionalWindow> windows;
         if(startTime == null){
-            availableProfessionals = cleaningProfessionalRepository.findAvailableProfessionalsOnDate(date);
+            windows = availabilityRepository.findFreeWindows(date);
         }else {
             LocalTime endTime = startTime.toLocalTime().plusHours(duration);
-            availableProfessionals = cleaningProfessionalRepository.findAvailableProfessionals(date, startTime.toLocalTime(), endTime);
+            windows = availabilityRepository.findFreeWindowsCovering(date, startTime.toLocalTime(), endTime);
+        }
+        return mapWindowsToAvailabilityResponses(windows);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AvailabilityPageResponse checkAvailability(LocalDate date, LocalDateTime startTime, int duration, Long afterProfessionalId, int limit) {
+        log.debug("fetching a page of cleaning professionals availabilities after {}...", afterProfessionalId);
+        if (availabilityIndex.covers(date)) {
+            List<AvailabilityResponse> availabilities = streamIndexedAvailability(date, startTime, duration, afterProfessionalId)
+                    .limit(limit + 1L)
+                    .toList();
+            List<AvailabilityResponse> page = availabilities.subList(0, Math.min(limit, availabilities.size()));
+            return AvailabilityPageResponse.builder()
+                    .availabilities(page)
+                    .nextCursor(availabilities.size() > limit ? page.get(limit - 1).getProfessionalId() : null)
+                    .build();
+        }
+
+        long afterId = afterProfessionalId == null ? 0 : afterProfessionalId;
+        List<Long> professionalIds;
+        if (startTime == null) {
+            professionalIds = cleaningProfessionalRepository.findAvailableProfessionalIdsOnDateAfter(date, afterId, Limit.of(limit + 1));
+        } else {
+            LocalTime endTime = startTime.toLocalTime().plusHours(duration);
+            professionalIds = cleaningProfessionalRepository.findAvailableProfessionalIdsAfter(date, startTime.toLocalTime(), endTime, afterId, Limit.of(limit + 1));
+        }
+        List<Long> pageIds = professionalIds.subList(0, Math.min(limit, professionalIds.size()));
+        return AvailabilityPageResponse.builder()
+                .availabilities(pageIds.isEmpty() ? List.of() : mapWindowsToAvailabilityResponses(availabilityRepository.findFreeWindows(date, pageIds)))
+                .nextCursor(professionalIds.size() > limit ? pageIds.get(limit - 1) : null)
+                .build();
+    }
+
+    /**
+     * Hands every matching professional to {@code consumer} in id order. Index hits are produced lazily from the
+     * day snapshot; otherwise free windows are read from a database cursor and grouped per professional as they arrive.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAvailability(LocalDate date, LocalDateTime startTime, int duration, Consumer<AvailabilityResponse> consumer) {
+        log.debug("streaming cleaning professionals availabilities...");
+        if (availabilityIndex.covers(date)) {
+            streamIndexedAvailability(date, startTime, duration, null).forEach(consumer);
+            return;
+        }
+        Stream<ProfessionalWindow> windows = startTime == null
+                ? availabilityRepository.streamFreeWindows(date)
+                : availabilityRepository.streamFreeWindowsCovering(date, startTime.toLocalTime(), startTime.toLocalTime().plusHours(duration));
+        try (windows) {
+            groupWindows(windows.iterator(), consumer);
         }
-        return availableProfessionals.stream().map(this::mapProfessionalToAvailabilityResponse).toList();
     }
 
     @Override
     public BookingResponse createBooking(LocalDateTime startTime, int duration, List<Long> professionalIds) {
-        log.info("Going to create new booking...");
+        log.debug("Going to create new booking...");
+        long started = System.nanoTime();
         // Validate the professionals belong to the same vehicle
-        Long vehicleId = cleaningProfessionalRepository.findById(professionalIds.get(0)).get().getVehicle().getId();
-        validateProfessionalsInSameVehicle(professionalIds, vehicleId);
+        List<CleaningProfessional> professionals = findProfessionals(professionalIds);
+        Long vehicleId = professionals.get(0).getVehicle().getId();
+        validateProfessionalsInSameVehicle(professionals, vehicleId);
 
         // Check if all professionals are available
-        List<CleaningProfessional> professionals = cleaningProfessionalRepository.findAllById(professionalIds);
-        if (!areProfessionalsAvailable(professionals, startTime.toLocalDate(), startTime.toLocalTime(), startTime.plusHours(duration).toLocalTime())) {
+        LocalDate date = startTime.toLocalDate();
+        Map<Long, DaySegments> availabilities = findAvailabilities(professionals, Set.of(date)).get(date);
+        if (!areProfessionalsAvailable(availabilities, startTime.toLocalTime(), startTime.plusHours(duration).toLocalTime())) {
             log.error("One or more professionals are not available during the requested time.");
             throw new AvailabilityException("One or more professionals are not available during the requested time.");
         }
@@ -69,15 +178,219 @@ public class BookingServiceImpl implements BookingService {
         booking = bookingRepository.save(booking);
 
         // Update availability for each professional
-        updateAvailabilityAfterBooking(professionals, startTime.toLocalDate(), startTime.toLocalTime(), duration);
+        updateAvailabilityAfterBooking(availabilities, startTime.toLocalTime(), duration);
+        saveAvailabilityChanges(Map.of(date, availabilities));
+
+        log.atInfo()
+                .addKeyValue("bookingId", booking.getId())
+                .addKeyValue("vehicleId", vehicleId)
+                .addKeyValue("professionalIds", professionalIds)
+                .addKeyValue("elapsedMs", elapsedMillis(started))
+                .log("Created booking {}", booking.getId());
+        return publishBookingChanges(BookingEventType.CREATED, List.of(mapToBookingResponse(booking, vehicleId))).get(0);
+    }
+
+    @Override
+    public BookingResponse assignBooking(LocalDateTime startTime, int duration, int teamSize) {
+        log.info("Going to auto-assign a team of {}...", teamSize);
+        return bookFirstAvailableTeam(findCandidateTeams(startTime, duration, teamSize), teamSize,
+                team -> createBooking(startTime, duration, team));
+    }
+
+    /**
+     * Best-fitting teams from one vehicle each, read from the availability index. Candidates are only suggestions;
+     * booking one re-checks the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<List<Long>> findCandidateTeams(LocalDateTime startTime, int duration, int teamSize) {
+        LocalTime start = startTime.toLocalTime();
+        return availabilityIndex.findTeams(startTime.toLocalDate(), start, start.plusHours(duration), teamSize, MAX_ASSIGNMENT_CANDIDATES).stream()
+                .map(team -> team.stream().map(ProfessionalInfo::id).toList())
+                .toList();
+    }
+
+    /**
+     * Books the first candidate team that is still free, moving on when the index was ahead of a concurrent booking.
+     */
+    static BookingResponse bookFirstAvailableTeam(List<List<Long>> teams, int teamSize, Function<List<Long>, BookingResponse> book) {
+        for (List<Long> team : teams) {
+            try {
+                return book.apply(team);
+            } catch (AvailabilityException e) {
+                log.warn("Candidate team {} was taken meanwhile, trying the next one", team);
+            }
+        }
+        log.error("No vehicle has {} professionals available during the requested time.", teamSize);
+        throw new AvailabilityException("No vehicle has " + teamSize + " professionals available during the requested time.");
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String availabilityVersion(LocalDate date) {
+        return availabilityVersions.version(date);
+    }
+
+    /**
+     * Answers from the availability index alone. With {@code professionalIds} the team is exactly those professionals,
+     * who must share a vehicle; otherwise any {@code teamSize} professionals of one vehicle, optionally a given one.
+     * Start times on today's date are never in the past.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<SlotSuggestionResponse> suggestStartTimes(LocalDate date, LocalTime after, int duration, int teamSize,
+                                                          Long vehicleId, List<Long> professionalIds, int days, int limit) {
+        Set<Long> team = null;
+        if (professionalIds != null && !professionalIds.isEmpty()) {
+            team = Set.copyOf(professionalIds);
+            Long teamVehicleId = null;
+            for (Long professionalId : team) {
+                ProfessionalInfo info = availabilityIndex.professional(professionalId);
+                if (info == null) {
+                    throw new ProfessionalNotFoundException(professionalId);
+                }
+                if (teamVehicleId != null && !teamVehicleId.equals(info.vehicleId())) {
+                    throw new DifferentVehicleException("Professionals must belong to the same vehicle");
+                }
+                teamVehicleId = info.vehicleId();
+            }
+            teamSize = team.size();
+        }
+        LocalTime earliest = after == null ? LocalTime.MIDNIGHT : after;
+        LocalDateTime now = LocalDateTime.now();
+        if (date.equals(now.toLocalDate()) && earliest.isBefore(now.toLocalTime())) {
+            earliest = now.toLocalTime();
+        }
+        return availabilityIndex.suggestStarts(date, earliest, days, duration * 60 / SlotBitmap.SLOT_MINUTES, teamSize, vehicleId, team, limit).stream()
+                .map(suggestion -> SlotSuggestionResponse.builder()
+                        .startTime(suggestion.startTime())
+                        .endTime(suggestion.startTime().plusHours(duration))
+                        .professionalIds(suggestion.team().stream().map(ProfessionalInfo::id).toList())
+                        .vehicleId(suggestion.vehicleId())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Books every request against one snapshot of the professionals' availability, loaded in two queries up front.
+     * Requests are checked in order and booked into that snapshot, so one that overlaps an earlier request of the
+     * same batch fails without asking the database again. Failed requests are reported per item and do not stop the
+     * rest; the successful ones are inserted with JDBC batches in this transaction.
+     */
+    @Override
+    public BookingBatchResponse createBookings(List<BookingRequest> requests) {
+        log.debug("Going to create {} bookings in a batch...", requests.size());
+        long started = System.nanoTime();
+        List<Long> requestedIds = requests.stream()
+                .filter(request -> request.getProfessionalIds() != null)
+                .flatMap(request -> request.getProfessionalIds().stream())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, CleaningProfessional> professionals = cleaningProfessionalRepository.findAllWithVehicleByIdIn(requestedIds).stream()
+                .collect(Collectors.toMap(CleaningProfessional::getId, Function.identity()));
+        Set<LocalDate> dates = requests.stream()
+                .map(BookingRequest::getStartTime)
+                .filter(Objects::nonNull)
+                .map(LocalDateTime::toLocalDate)
+                .collect(Collectors.toSet());
+        Map<LocalDate, Map<Long, DaySegments>> availabilities = findAvailabilities(new ArrayList<>(professionals.values()), dates);
+
+        BookingBatchItemResponse[] results = new BookingBatchItemResponse[requests.size()];
+        Map<Integer, Booking> bookings = new LinkedHashMap<>();
+        Map<LocalDate, Map<Long, DaySegments>> changed = new HashMap<>();
+        for (int index = 0; index < requests.size(); index++) {
+            BookingRequest request = requests.get(index);
+            try {
+                Booking booking = bookInSnapshot(request, professionals, availabilities, bookings);
+                LocalDate date = booking.getStartDateTime().toLocalDate();
+                Map<Long, DaySegments> changedOnDate = changed.computeIfAbsent(date, d -> new HashMap<>());
+                booking.getCleaningProfessionals().forEach(professional ->
+                        changedOnDate.put(professional.getId(), availabilities.get(date).get(professional.getId())));
+                bookings.put(index, booking);
+            } catch (InvalidRequestException | ProfessionalNotFoundException | DifferentVehicleException | AvailabilityException e) {
+                log.warn("Batch booking {} failed: {}", index, e.getMessage());
+                results[index] = failedBatchItem(index, e);
+            }
+        }
+
+        bookingJdbcRepository.insertAll(new ArrayList<>(bookings.values()));
+        saveAvailabilityChanges(changed);
+        log.atInfo()
+                .addKeyValue("bookingIds", bookings.values().stream().map(Booking::getId).toList())
+                .addKeyValue("created", bookings.size())
+                .addKeyValue("failed", requests.size() - bookings.size())
+                .addKeyValue("elapsedMs", elapsedMillis(started))
+                .log("Created {} of {} batch bookings", bookings.size(), requests.size());
 
-        return mapToBookingResponse(booking, vehicleId);
+        bookings.forEach((index, booking) -> results[index] = BookingBatchItemResponse.builder()
+                .index(index)
+                .status(HttpStatus.CREATED.value())
+                .booking(mapToBookingResponse(booking, booking.getCleaningProfessionals().get(0).getVehicle().getId()))
+                .build());
+        publishBookingChanges(BookingEventType.CREATED, bookings.keySet().stream().map(index -> results[index].getBooking()).toList());
+        return BookingBatchResponse.builder()
+                .created(bookings.size())
+                .failed(requests.size() - bookings.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Books every occurrence of the series in this transaction, or none of them. Availability for all occurrence
+     * dates is read in one query and checked in memory, and the bookings are inserted with one JDBC batch, so the
+     * statements run per booking do not grow with the number of occurrences.
+     */
+    @Override
+    public List<BookingResponse> createRecurringBooking(LocalDateTime startTime, int duration, List<Long> professionalIds,
+                                                        RecurrenceFrequency frequency, int occurrences) {
+        log.debug("Going to create {} {} bookings...", occurrences, frequency);
+        long started = System.nanoTime();
+        List<CleaningProfessional> professionals = findProfessionals(professionalIds);
+        Long vehicleId = professionals.get(0).getVehicle().getId();
+        validateProfessionalsInSameVehicle(professionals, vehicleId);
+
+        List<LocalDateTime> starts = new ArrayList<>(occurrences);
+        for (int occurrence = 0; occurrence < occurrences; occurrence++) {
+            starts.add(startTime.plusWeeks((long) occurrence * frequency.getWeeks()));
+        }
+        Map<LocalDate, Map<Long, DaySegments>> availabilities = findAvailabilities(professionals,
+                starts.stream().map(LocalDateTime::toLocalDate).collect(Collectors.toSet()));
+        List<LocalDate> unavailable = starts.stream()
+                .filter(start -> !areProfessionalsAvailable(availabilities.get(start.toLocalDate()), start.toLocalTime(), start.plusHours(duration).toLocalTime()))
+                .map(LocalDateTime::toLocalDate)
+                .toList();
+        if (!unavailable.isEmpty()) {
+            log.error("One or more professionals are not available on {}.", unavailable);
+            throw new AvailabilityException("One or more professionals are not available on " + unavailable + ".");
+        }
+
+        List<Booking> bookings = new ArrayList<>(occurrences);
+        for (LocalDateTime start : starts) {
+            Booking booking = new Booking();
+            booking.setStartDateTime(start);
+            booking.setEndDateTime(start.plusHours(duration));
+            booking.setCleaningProfessionals(professionals);
+            bookings.add(booking);
+            updateAvailabilityAfterBooking(availabilities.get(start.toLocalDate()), start.toLocalTime(), duration);
+        }
+        bookingJdbcRepository.insertAll(bookings);
+        saveAvailabilityChanges(availabilities);
+
+        List<Long> bookingIds = bookings.stream().map(Booking::getId).toList();
+        log.atInfo()
+                .addKeyValue("bookingIds", bookingIds)
+                .addKeyValue("vehicleId", vehicleId)
+                .addKeyValue("professionalIds", professionalIds)
+                .addKeyValue("elapsedMs", elapsedMillis(started))
+                .log("Created {} {} bookings", occurrences, frequency);
+        return publishBookingChanges(BookingEventType.CREATED, bookings.stream().map(booking -> mapToBookingResponse(booking, vehicleId)).toList());
     }
 
     @Override
     public BookingResponse updateBooking(Long bookingId, LocalDateTime newStartTime, int newDuration) {
-        log.info("Going to update booking...");
-        Optional<Booking> optionalBooking = bookingRepository.findById(bookingId);
+        log.debug("Going to update booking {}...", bookingId);
+        long started = System.nanoTime();
+        Optional<Booking> optionalBooking = bookingRepository.findWithProfessionalsById(bookingId);
 
         if (optionalBooking.isEmpty()) {
             log.error("No Booking Found for id: {}", bookingId);
@@ -86,85 +399,298 @@ public class BookingServiceImpl implements BookingService {
 
 
         Booking booking = optionalBooking.get();
+        List<CleaningProfessional> professionals = booking.getCleaningProfessionals();
+        Long vehicleId = professionals.get(0).getVehicle().getId();
+        LocalDate previousDate = booking.getStartDateTime().toLocalDate();
+        LocalDate newDate = newStartTime.toLocalDate();
+        Map<LocalDate, Map<Long, DaySegments>> availabilities = findAvailabilities(professionals, Stream.of(previousDate, newDate).collect(Collectors.toSet()));
+
+        // Update availability before making changes
+        revertAvailability(booking, availabilities.get(previousDate));
+
         // Check if all professionals are available
-        if (!areProfessionalsAvailable(booking.getCleaningProfessionals(), newStartTime.toLocalDate(), newStartTime.toLocalTime(), newStartTime.plusHours(newDuration).toLocalTime())) {
+        if (!areProfessionalsAvailable(availabilities.get(newDate), newStartTime.toLocalTime(), newStartTime.plusHours(newDuration).toLocalTime())) {
             log.error("One or more professionals are not available during the requested time.");
             throw new AvailabilityException("One or more professionals are not available during the requested time.");
         }
-        Long vehicleId = cleaningProfessionalRepository.findById(booking.getCleaningProfessionals().get(0).getId()).get().getVehicle().getId();
-
-        // Update availability before making changes
-        revertAvailability(booking);
 
         // Update booking details
         booking.setStartDateTime(newStartTime);
         booking.setEndDateTime(newStartTime.plusHours(newDuration));
 
         // Update availability for the new time slot
-        updateAvailabilityAfterBooking(booking.getCleaningProfessionals(), newStartTime.toLocalDate(), newStartTime.toLocalTime(), newDuration);
+        updateAvailabilityAfterBooking(availabilities.get(newDate), newStartTime.toLocalTime(), newDuration);
 
         bookingRepository.save(booking);
-        return mapToBookingResponse(booking, vehicleId);
+        saveAvailabilityChanges(availabilities);
+        log.atInfo()
+                .addKeyValue("bookingId", bookingId)
+                .addKeyValue("vehicleId", vehicleId)
+                .addKeyValue("elapsedMs", elapsedMillis(started))
+                .log("Updated booking {}", bookingId);
+        return publishBookingChanges(BookingEventType.UPDATED, List.of(mapToBookingResponse(booking, vehicleId))).get(0);
     }
 
-    private void validateProfessionalsInSameVehicle(List<Long> professionalIds, Long vehicleId) {
-        for (Long professionalId : professionalIds) {
-            if (!cleaningProfessionalRepository.findById(professionalId).get().getVehicle().getId().equals(vehicleId)) {
+    /**
+     * Not read-only, so it stays on the primary: clients read their booking right after writing it, before the replica
+     * may have caught up.
+     */
+    @Override
+    @Transactional
+    public BookingResponse getBooking(Long bookingId) {
+        Booking booking = bookingRepository.findWithProfessionalsById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(bookingId));
+        return mapToBookingResponse(booking, booking.getCleaningProfessionals().get(0).getVehicle().getId());
+    }
+
+    /**
+     * Releases the booked time of every professional through the same path as a booking update, then deletes the
+     * booking.
+     */
+    @Override
+    public BookingResponse cancelBooking(Long bookingId) {
+        log.debug("Going to cancel booking {}...", bookingId);
+        long started = System.nanoTime();
+        Booking booking = bookingRepository.findWithProfessionalsById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(bookingId));
+        List<CleaningProfessional> professionals = booking.getCleaningProfessionals();
+        Long vehicleId = professionals.get(0).getVehicle().getId();
+        LocalDate date = booking.getStartDateTime().toLocalDate();
+        Map<LocalDate, Map<Long, DaySegments>> availabilities = findAvailabilities(professionals, Set.of(date));
+
+        revertAvailability(booking, availabilities.get(date));
+        BookingResponse response = mapToBookingResponse(booking, vehicleId);
+        bookingRepository.delete(booking);
+        saveAvailabilityChanges(availabilities);
+        log.atInfo()
+                .addKeyValue("bookingId", bookingId)
+                .addKeyValue("vehicleId", vehicleId)
+                .addKeyValue("elapsedMs", elapsedMillis(started))
+                .log("Cancelled booking {}", bookingId);
+        return publishBookingChanges(BookingEventType.CANCELLED, List.of(response)).get(0);
+    }
+
+    /**
+     * One page of bookings in id order, read with two queries whatever the page size: the page's ids, then those
+     * bookings with their professionals and vehicles fetched in.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageResponse findBookings(LocalDateTime from, LocalDateTime to, Long professionalId, Long vehicleId, Long afterId, int limit) {
+        List<Long> ids = bookingRepository.findIds(from, to, professionalId, vehicleId, afterId == null ? 0 : afterId, Limit.of(limit + 1));
+        List<Long> pageIds = ids.subList(0, Math.min(limit, ids.size()));
+        List<BookingResponse> bookings = pageIds.isEmpty() ? List.of() : bookingRepository.findAllWithProfessionalsByIdIn(pageIds).stream()
+                .map(booking -> mapToBookingResponse(booking, booking.getCleaningProfessionals().get(0).getVehicle().getId()))
+                .toList();
+        return BookingPageResponse.builder()
+                .bookings(bookings)
+                .nextCursor(ids.size() > limit ? pageIds.get(limit - 1) : null)
+                .build();
+    }
+
+    private Stream<AvailabilityResponse> streamIndexedAvailability(LocalDate date, LocalDateTime startTime, int duration, Long afterProfessionalId) {
+        LocalTime start = startTime == null ? null : startTime.toLocalTime();
+        LocalTime end = start == null ? null : start.plusHours(duration);
+        return availabilityIndex.streamAvailable(date, start, end, afterProfessionalId).map(this::mapSlotsToAvailabilityResponse);
+    }
+
+    /**
+     * Validates one batch request like {@link #createBooking} does and books it into the in-memory snapshot.
+     */
+    private Booking bookInSnapshot(BookingRequest request, Map<Long, CleaningProfessional> professionalsById,
+                                   Map<LocalDate, Map<Long, DaySegments>> availabilities, Map<Integer, Booking> accepted) {
+        if (request.getStartTime() == null || request.getDuration() < 1
+                || request.getProfessionalIds() == null || request.getProfessionalIds().isEmpty()) {
+            throw new InvalidRequestException("startTime, a positive duration and at least one professional are required");
+        }
+        if (!SlotBitmap.isSlotStart(request.getStartTime().toLocalTime())) {
+            throw new InvalidRequestException("startTime must be on a " + SlotBitmap.SLOT_MINUTES + "-minute boundary");
+        }
+        List<CleaningProfessional> professionals = request.getProfessionalIds().stream()
+                .distinct()
+                .map(professionalId -> Optional.ofNullable(professionalsById.get(professionalId))
+                        .orElseThrow(() -> new ProfessionalNotFoundException(professionalId)))
+                .collect(Collectors.toList());
+        validateProfessionalsInSameVehicle(professionals, professionals.get(0).getVehicle().getId());
+
+        LocalDateTime startTime = request.getStartTime();
+        LocalDateTime endTime = startTime.plusHours(request.getDuration());
+        Map<Long, DaySegments> dayAvailabilities = availabilities.get(startTime.toLocalDate());
+        Map<Long, DaySegments> teamAvailabilities = new LinkedHashMap<>();
+        professionals.forEach(professional -> teamAvailabilities.put(professional.getId(), dayAvailabilities.get(professional.getId())));
+        if (!areProfessionalsAvailable(teamAvailabilities, startTime.toLocalTime(), endTime.toLocalTime())) {
+            throw new AvailabilityException(findBatchConflict(professionals, startTime, endTime, accepted)
+                    .map(index -> "Overlaps booking " + index + " of the same batch.")
+                    .orElse("One or more professionals are not available during the requested time."));
+        }
+        updateAvailabilityAfterBooking(teamAvailabilities, startTime.toLocalTime(), request.getDuration());
+
+        Booking booking = new Booking();
+        booking.setStartDateTime(startTime);
+        booking.setEndDateTime(endTime);
+        booking.setCleaningProfessionals(professionals);
+        return booking;
+    }
+
+    private Optional<Integer> findBatchConflict(List<CleaningProfessional> professionals, LocalDateTime startTime, LocalDateTime endTime,
+                                                Map<Integer, Booking> accepted) {
+        return accepted.entrySet().stream()
+                .filter(entry -> entry.getValue().getStartDateTime().isBefore(endTime) && startTime.isBefore(entry.getValue().getEndDateTime()))
+                .filter(entry -> entry.getValue().getCleaningProfessionals().stream().anyMatch(professionals::contains))
+                .map(Map.Entry::getKey)
+                .findFirst();
+    }
+
+    private BookingBatchItemResponse failedBatchItem(int index, RuntimeException e) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        return BookingBatchItemResponse.builder()
+                .index(index)
+                .status(status == null ? HttpStatus.BAD_REQUEST.value() : status.code().value())
+                .error(e.getMessage())
+                .build();
+    }
+
+    private List<CleaningProfessional> findProfessionals(List<Long> professionalIds) {
+        Map<Long, CleaningProfessional> professionals = cleaningProfessionalRepository.findAllWithVehicleByIdIn(professionalIds).stream()
+                .collect(Collectors.toMap(CleaningProfessional::getId, Function.identity()));
+        return professionalIds.stream()
+                .distinct()
+                .map(professionalId -> Optional.ofNullable(professionals.get(professionalId))
+                        .orElseThrow(() -> new ProfessionalNotFoundException(professionalId)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Loads the availability of all professionals on all dates in one query, grouped by date and professional id.
+     * Every professional gets an entry for every date, even without any rows.
+     */
+    private Map<LocalDate, Map<Long, DaySegments>> findAvailabilities(List<CleaningProfessional> professionals, Set<LocalDate> dates) {
+        List<Long> professionalIds = professionals.stream().map(CleaningProfessional::getId).toList();
+        Map<LocalDate, Map<Long, List<Availability>>> rows = new HashMap<>();
+        for (Availability availability : availabilityRepository.findByProfessionalIdsAndDates(professionalIds, dates)) {
+            rows.computeIfAbsent(availability.getDate(), date -> new HashMap<>())
+                    .computeIfAbsent(availability.getCleaningProfessional().getId(), professionalId -> new ArrayList<>())
+                    .add(availability);
+        }
+        Map<LocalDate, Map<Long, DaySegments>> availabilities = new HashMap<>();
+        for (LocalDate date : dates) {
+            Map<Long, List<Availability>> dayRows = rows.getOrDefault(date, Map.of());
+            Map<Long, DaySegments> byProfessional = new LinkedHashMap<>();
+            for (CleaningProfessional professional : professionals) {
+                byProfessional.put(professional.getId(),
+                        new DaySegments(professional, date, dayRows.getOrDefault(professional.getId(), List.of())));
+            }
+            availabilities.put(date, byProfessional);
+        }
+        return availabilities;
+    }
+
+    /**
+     * Inserts split-off rows, deletes merged-away rows and publishes the resulting day of each professional.
+     * Updates to existing rows are flushed by Hibernate.
+     */
+    private void saveAvailabilityChanges(Map<LocalDate, Map<Long, DaySegments>> availabilities) {
+        List<Availability> created = new ArrayList<>();
+        List<Availability> removed = new ArrayList<>();
+        availabilities.values().forEach(byProfessional -> byProfessional.values().forEach(segments -> {
+            created.addAll(segments.created());
+            removed.addAll(segments.removed());
+        }));
+        availabilityRepository.deleteAll(removed);
+        availabilityRepository.saveAll(created);
+
+        availabilities.forEach((date, byProfessional) -> {
+            Map<Long, List<Availability>> changed = new HashMap<>();
+            byProfessional.forEach((professionalId, segments) -> changed.put(professionalId, segments.availabilities()));
+            eventPublisher.publishEvent(new AvailabilityChangedEvent(date, changed));
+        });
+    }
+
+    private void validateProfessionalsInSameVehicle(List<CleaningProfessional> professionals, Long vehicleId) {
+        for (CleaningProfessional professional : professionals) {
+            if (!professional.getVehicle().getId().equals(vehicleId)) {
                 log.error("Professionals belong to different vehicles.");
                 throw new DifferentVehicleException("Professionals must belong to the same vehicle");
             }
         }
     }
 
-    private void updateAvailabilityAfterBooking(List<CleaningProfessional> professionals, LocalDate date, LocalTime startTime, int duration) {
-        log.info("Updating availabilities after booking...");
-        LocalTime endTime = startTime.plusHours(duration);
-        for (CleaningProfessional professional : professionals) {
-            List<Availability> availabilities = availabilityRepository.findByCleaningProfessionalIdAndDate(professional.getId(), date);
+    /**
+     * Hands the changed bookings to the outbox, which records them in this transaction.
+     */
+    private List<BookingResponse> publishBookingChanges(BookingEventType type, List<BookingResponse> bookings) {
+        if (!bookings.isEmpty()) {
+            eventPublisher.publishEvent(new BookingChangedEvent(type, bookings));
+        }
+        return bookings;
+    }
 
-            for (Availability availability : availabilities) {
-                if (availability.getStartTime().equals(startTime) && availability.getEndTime().equals(endTime)) {
-                    availability.setStatus(AvailabilityStatus.BOOKED);
-                    availabilityRepository.save(availability);
-                    break;
-                }
-            }
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private void updateAvailabilityAfterBooking(Map<Long, DaySegments> availabilities, LocalTime startTime, int duration) {
+        log.debug("Updating availabilities after booking...");
+        LocalTime endTime = startTime.plusHours(duration);
+        for (DaySegments segments : availabilities.values()) {
+            segments.book(startTime, endTime);
         }
     }
-    private void revertAvailability(Booking booking) {
-        log.info("Reverting availabilities...");
-        LocalDateTime startDateTime = booking.getStartDateTime();
+    private void revertAvailability(Booking booking, Map<Long, DaySegments> availabilities) {
+        log.debug("Reverting availabilities...");
+        LocalTime startTime = booking.getStartDateTime().toLocalTime();
         LocalTime endTime = booking.getEndDateTime().toLocalTime();
 
-        for (CleaningProfessional professional : booking.getCleaningProfessionals()) {
-            List<Availability> availabilities = availabilityRepository.findByCleaningProfessionalIdAndDate(professional.getId(), startDateTime.toLocalDate());
+        for (DaySegments segments : availabilities.values()) {
+            if (!segments.release(startTime, endTime)) {
+                log.warn("No booked slot {}-{} to release for professional {}", startTime, endTime, segments.getProfessional().getId());
+            }
+        }
+    }
 
-            for (Availability availability : availabilities) {
-                if (availability.getStartTime().equals(startDateTime.toLocalTime()) && availability.getEndTime().equals(endTime)) {
-                    availability.setStatus(AvailabilityStatus.AVAILABLE);
-                    availabilityRepository.save(availability);
-                    break;
+    /**
+     * Groups free windows ordered by professional id into one response per professional.
+     */
+    public List<AvailabilityResponse> mapWindowsToAvailabilityResponses(List<ProfessionalWindow> windows) {
+        List<AvailabilityResponse> responses = new ArrayList<>();
+        groupWindows(windows.iterator(), responses::add);
+        return responses;
+    }
+    private void groupWindows(Iterator<ProfessionalWindow> windows, Consumer<AvailabilityResponse> consumer) {
+        AvailabilityResponse current = null;
+        while (windows.hasNext()) {
+            ProfessionalWindow window = windows.next();
+            if (current == null || !current.getProfessionalId().equals(window.professionalId())) {
+                if (current != null) {
+                    consumer.accept(current);
                 }
+                current = AvailabilityResponse.builder()
+                        .professionalId(window.professionalId())
+                        .name(window.name())
+                        .availabilities(new ArrayList<>())
+                        .build();
             }
+            current.getAvailabilities().add(TimeSlots.builder()
+                    .startTime(window.startTime())
+                    .endTime(window.endTime())
+                    .build());
+        }
+        if (current != null) {
+            consumer.accept(current);
         }
     }
-
-    private AvailabilityResponse mapProfessionalToAvailabilityResponse(CleaningProfessional professional) {
-        List<TimeSlots> timeSlots = professional.getAvailabilities().stream()
-                .filter(availability -> availability.getStatus() == AvailabilityStatus.AVAILABLE)
-                .map(this::mapAvailabilityToTimeSlots)
-                .collect(Collectors.toList());
-
+    private AvailabilityResponse mapSummaryToAvailabilityResponse(ProfessionalFreeIntervals summary) {
         return AvailabilityResponse.builder()
-                .professionalId(professional.getId())
-                .name(professional.getName())
-                .availabilities(timeSlots)
+                .professionalId(summary.professionalId())
+                .name(summary.name())
+                .availabilities(FreeIntervals.parse(summary.freeIntervals()))
                 .build();
     }
-    private TimeSlots mapAvailabilityToTimeSlots(Availability availability) {
-        return TimeSlots.builder()
-                .startTime(availability.getStartTime())
-                .endTime(availability.getEndTime())
+    private AvailabilityResponse mapSlotsToAvailabilityResponse(ProfessionalSlots slots) {
+        return AvailabilityResponse.builder()
+                .professionalId(slots.professional().id())
+                .name(slots.professional().name())
+                .availabilities(SlotBitmap.toTimeSlots(slots.bitmap(), 0))
                 .build();
     }
     public BookingResponse mapToBookingResponse(Booking booking, Long vehicleId) {
@@ -178,14 +704,9 @@ public class BookingServiceImpl implements BookingService {
                 .vehicleId(vehicleId)
                 .build();
     }
-    private boolean areProfessionalsAvailable(List<CleaningProfessional> professionals, LocalDate date, LocalTime startTime, LocalTime endTime) {
-        for (CleaningProfessional professional : professionals) {
-            List<Availability> availabilities = availabilityRepository.findByCleaningProfessionalIdAndDate(professional.getId(), date);
-            boolean available = availabilities.stream()
-                    .anyMatch(a -> a.getStatus() == AvailabilityStatus.AVAILABLE &&
-                            (a.getStartTime().isBefore(startTime) || a.getStartTime().equals(startTime)) &&
-                            (a.getEndTime().isAfter(endTime) || a.getStartTime().equals(startTime)));
-            if (!available) {
+    private boolean areProfessionalsAvailable(Map<Long, DaySegments> availabilities, LocalTime startTime, LocalTime endTime) {
+        for (DaySegments segments : availabilities.values()) {
+            if (!segments.isFree(startTime, endTime)) {
                 return false;
             }
         }
@@ -0,0 +1,193 @@
+package com.justlife.home.cleaning.service.impl;
+
+import com.justlife.home.cleaning.availability.AvailabilityCache;
+import com.justlife.home.cleaning.concurrency.StripedLocks;
+import com.justlife.home.cleaning.exception.AvailabilityException;
+import com.justlife.home.cleaning.model.enums.RecurrenceFrequency;
+import com.justlife.home.cleaning.repository.BookingRepository;
+import com.justlife.home.cleaning.request.BookingRequest;
+import com.justlife.home.cleaning.response.AvailabilityPageResponse;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.BookingBatchResponse;
+import com.justlife.home.cleaning.response.BookingPageResponse;
+import com.justlife.home.cleaning.response.BookingResponse;
+import com.justlife.home.cleaning.response.SlotSuggestionResponse;
+import com.justlife.home.cleaning.service.BookingService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking writes per professional inside this JVM and retries writes that lose an optimistic
+ * {@code @Version} check against another instance. Locks are taken outside {@link BookingServiceImpl}'s
+ * transaction so they are only released once it has committed. Availability lists are served through
+ * {@link AvailabilityCache}. Result and batch sizes are recorded as {@code availability.results} and
+ * {@code booking.batch.size}, cache hits included.
+ */
+@Service
+@Primary
+@Slf4j
+public class ConcurrentBookingService implements BookingService {
+    private final BookingServiceImpl bookingService;
+    private final BookingRepository bookingRepository;
+    private final AvailabilityCache availabilityCache;
+    private final StripedLocks locks;
+    private final DistributionSummary availabilityResults;
+    private final DistributionSummary availabilityPageResults;
+    private final DistributionSummary batchSizes;
+    private final int maxAttempts;
+    private final long lockTimeoutMillis;
+
+    public ConcurrentBookingService(BookingServiceImpl bookingService,
+                                    BookingRepository bookingRepository,
+                                    AvailabilityCache availabilityCache,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${booking.concurrency.lock-stripes:256}") int lockStripes,
+                                    @Value("${booking.concurrency.max-attempts:3}") int maxAttempts,
+                                    @Value("${booking.concurrency.lock-timeout-ms:5000}") long lockTimeoutMillis) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.availabilityCache = availabilityCache;
+        this.locks = new StripedLocks(lockStripes);
+        this.availabilityResults = resultSizes(meterRegistry, "list");
+        this.availabilityPageResults = resultSizes(meterRegistry, "page");
+        this.batchSizes = DistributionSummary.builder("booking.batch.size")
+                .description("Bookings requested per batch")
+                .baseUnit("bookings")
+                .register(meterRegistry);
+        this.maxAttempts = maxAttempts;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    @Override
+    public List<AvailabilityResponse> checkAvailability(LocalDate date, LocalDateTime startTime, int duration) {
+        List<AvailabilityResponse> availabilities = availabilityCache.get(date, startTime, duration, () -> bookingService.checkAvailability(date, startTime, duration));
+        availabilityResults.record(availabilities.size());
+        return availabilities;
+    }
+
+    @Override
+    public AvailabilityPageResponse checkAvailability(LocalDate date, LocalDateTime startTime, int duration, Long afterProfessionalId, int limit) {
+        AvailabilityPageResponse page = bookingService.checkAvailability(date, startTime, duration, afterProfessionalId, limit);
+        availabilityPageResults.record(page.getAvailabilities().size());
+        return page;
+    }
+
+    @Override
+    public void streamAvailability(LocalDate date, LocalDateTime startTime, int duration, Consumer<AvailabilityResponse> consumer) {
+        bookingService.streamAvailability(date, startTime, duration, consumer);
+    }
+
+    @Override
+    public BookingResponse createBooking(LocalDateTime startTime, int duration, List<Long> professionalIds) {
+        return withLocks(professionalIds, () -> bookingService.createBooking(startTime, duration, professionalIds));
+    }
+
+    /**
+     * Books candidate teams through {@link #createBooking}, so each attempt is locked and retried on its own.
+     */
+    @Override
+    public BookingResponse assignBooking(LocalDateTime startTime, int duration, int teamSize) {
+        return BookingServiceImpl.bookFirstAvailableTeam(bookingService.findCandidateTeams(startTime, duration, teamSize), teamSize,
+                team -> createBooking(startTime, duration, team));
+    }
+
+    @Override
+    public String availabilityVersion(LocalDate date) {
+        return bookingService.availabilityVersion(date);
+    }
+
+    @Override
+    public List<SlotSuggestionResponse> suggestStartTimes(LocalDate date, LocalTime after, int duration, int teamSize,
+                                                          Long vehicleId, List<Long> professionalIds, int days, int limit) {
+        return bookingService.suggestStartTimes(date, after, duration, teamSize, vehicleId, professionalIds, days, limit);
+    }
+
+    /**
+     * Locks every professional named anywhere in the batch for the whole batch transaction.
+     */
+    @Override
+    public BookingBatchResponse createBookings(List<BookingRequest> requests) {
+        batchSizes.record(requests.size());
+        List<Long> professionalIds = requests.stream()
+                .filter(request -> request.getProfessionalIds() != null)
+                .flatMap(request -> request.getProfessionalIds().stream())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return withLocks(professionalIds, () -> bookingService.createBookings(requests));
+    }
+
+    @Override
+    public List<BookingResponse> createRecurringBooking(LocalDateTime startTime, int duration, List<Long> professionalIds,
+                                                        RecurrenceFrequency frequency, int occurrences) {
+        return withLocks(professionalIds, () -> bookingService.createRecurringBooking(startTime, duration, professionalIds, frequency, occurrences));
+    }
+
+    @Override
+    public BookingResponse updateBooking(Long bookingId, LocalDateTime newStartTime, int newDuration) {
+        List<Long> professionalIds = bookingRepository.findProfessionalIdsByBookingId(bookingId);
+        return withLocks(professionalIds, () -> bookingService.updateBooking(bookingId, newStartTime, newDuration));
+    }
+
+    @Override
+    public BookingResponse getBooking(Long bookingId) {
+        return bookingService.getBooking(bookingId);
+    }
+
+    @Override
+    public BookingResponse cancelBooking(Long bookingId) {
+        List<Long> professionalIds = bookingRepository.findProfessionalIdsByBookingId(bookingId);
+        return withLocks(professionalIds, () -> bookingService.cancelBooking(bookingId));
+    }
+
+    @Override
+    public BookingPageResponse findBookings(LocalDateTime from, LocalDateTime to, Long professionalId, Long vehicleId, Long afterId, int limit) {
+        return bookingService.findBookings(from, to, professionalId, vehicleId, afterId, limit);
+    }
+
+    private static DistributionSummary resultSizes(MeterRegistry meterRegistry, String query) {
+        return DistributionSummary.builder("availability.results")
+                .description("Professionals returned per availability query")
+                .baseUnit("professionals")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+
+    private <T> T withLocks(Collection<Long> professionalIds, Supplier<T> action) {
+        try {
+            return locks.withLocks(professionalIds, lockTimeoutMillis, TimeUnit.MILLISECONDS, () -> retryOnConflict(action));
+        } catch (StripedLocks.LockTimeoutException e) {
+            log.error(e.getMessage());
+            throw new AvailabilityException(e.getMessage());
+        }
+    }
+
+    private <T> T retryOnConflict(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Giving up after {} conflicting booking attempts", attempt);
+                    throw new AvailabilityException("Availability changed concurrently, please try again.");
+                }
+                log.warn("Booking attempt {} lost an optimistic lock, retrying", attempt);
+            }
+        }
+    }
+}
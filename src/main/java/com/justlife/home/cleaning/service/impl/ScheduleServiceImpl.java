@@ -0,0 +1,175 @@
+package com.justlife.home.cleaning.service.impl;
+
+import com.justlife.home.cleaning.availability.AvailabilityCache;
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.availability.AvailabilityMaterializer;
+import com.justlife.home.cleaning.exception.ProfessionalNotFoundException;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilityJdbcRepository;
+import com.justlife.home.cleaning.repository.AvailabilityJdbcRepository.NewAvailability;
+import com.justlife.home.cleaning.repository.AvailabilityJdbcRepository.ProfessionalDay;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.request.WorkingHoursTemplate;
+import com.justlife.home.cleaning.response.ScheduleGenerationResponse;
+import com.justlife.home.cleaning.service.ScheduleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates availability rows from working-hour templates. Professionals are split into chunks that are generated
+ * in parallel, each in its own transaction: existing rows of the chunk are read in one query, and every working day
+ * without any row gets one free window, inserted with multi-row batches. Days that already have rows are skipped, so
+ * a run that failed part way can simply be repeated.
+ */
+@Service
+@Slf4j
+public class ScheduleServiceImpl implements ScheduleService {
+    private final CleaningProfessionalRepository cleaningProfessionalRepository;
+    private final AvailabilityJdbcRepository availabilityJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityMaterializer availabilityMaterializer;
+    private final int parallelism;
+    private final int professionalsPerChunk;
+
+    public ScheduleServiceImpl(CleaningProfessionalRepository cleaningProfessionalRepository,
+                               AvailabilityJdbcRepository availabilityJdbcRepository,
+                               TransactionTemplate transactionTemplate,
+                               AvailabilityIndex availabilityIndex,
+                               AvailabilityCache availabilityCache,
+                               AvailabilityMaterializer availabilityMaterializer,
+                               @Value("${schedule.generation.parallelism:4}") int parallelism,
+                               @Value("${schedule.generation.professionals-per-chunk:500}") int professionalsPerChunk) {
+        this.cleaningProfessionalRepository = cleaningProfessionalRepository;
+        this.availabilityJdbcRepository = availabilityJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.availabilityIndex = availabilityIndex;
+        this.availabilityCache = availabilityCache;
+        this.availabilityMaterializer = availabilityMaterializer;
+        this.parallelism = parallelism;
+        this.professionalsPerChunk = professionalsPerChunk;
+    }
+
+    @Override
+    public ScheduleGenerationResponse generate(LocalDate from, LocalDate to, List<WorkingHoursTemplate> templates) {
+        log.info("Going to generate availability from {} to {}...", from, to);
+        long started = System.nanoTime();
+        Map<Long, WorkingHoursTemplate> templateByProfessional = assignTemplates(templates);
+        List<Long> professionalIds = new ArrayList<>(templateByProfessional.keySet());
+
+        int created = 0;
+        int skipped = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<int[]>> chunks = new ArrayList<>();
+            for (int i = 0; i < professionalIds.size(); i += professionalsPerChunk) {
+                List<Long> chunk = professionalIds.subList(i, Math.min(i + professionalsPerChunk, professionalIds.size()));
+                chunks.add(executor.submit(() -> transactionTemplate.execute(status -> generateChunk(chunk, from, to, templateByProfessional))));
+            }
+            for (Future<int[]> chunk : chunks) {
+                int[] counts = chunk.get();
+                created += counts[0];
+                skipped += counts[1];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating availability", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long rowsPerSecond = created * 1000L / elapsedMillis;
+        log.info("Generated {} availability windows for {} professionals in {} ms ({} rows/s), skipped {} days that already had rows",
+                created, professionalIds.size(), elapsedMillis, rowsPerSecond, skipped);
+        if (created > 0) {
+            refreshReadModels(from, to);
+        }
+        return ScheduleGenerationResponse.builder()
+                .professionals(professionalIds.size())
+                .created(created)
+                .skipped(skipped)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    /**
+     * @return the number of windows created and of working days skipped
+     */
+    private int[] generateChunk(List<Long> professionalIds, LocalDate from, LocalDate to, Map<Long, WorkingHoursTemplate> templateByProfessional) {
+        Set<ProfessionalDay> existing = availabilityJdbcRepository.findProfessionalDays(professionalIds, from, to);
+        List<NewAvailability> availabilities = new ArrayList<>();
+        int skipped = 0;
+        for (Long professionalId : professionalIds) {
+            WorkingHoursTemplate template = templateByProfessional.get(professionalId);
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                if (template.getDaysOff() != null && template.getDaysOff().contains(date.getDayOfWeek())) {
+                    continue;
+                }
+                if (existing.contains(new ProfessionalDay(professionalId, date))) {
+                    skipped++;
+                    continue;
+                }
+                availabilities.add(new NewAvailability(professionalId, date, AvailabilityStatus.AVAILABLE, template.getStartTime(), template.getEndTime()));
+            }
+        }
+        availabilityJdbcRepository.insertAll(availabilities);
+        return new int[]{availabilities.size(), skipped};
+    }
+
+    /**
+     * Maps every professional to its template. Templates listing professionals win over the one that lists none,
+     * which covers everybody else.
+     */
+    private Map<Long, WorkingHoursTemplate> assignTemplates(List<WorkingHoursTemplate> templates) {
+        List<Long> allIds = cleaningProfessionalRepository.findAllIds();
+        Set<Long> known = new HashSet<>(allIds);
+        Map<Long, WorkingHoursTemplate> templateByProfessional = new LinkedHashMap<>();
+        WorkingHoursTemplate fallback = null;
+        for (WorkingHoursTemplate template : templates) {
+            if (template.getProfessionalIds() == null || template.getProfessionalIds().isEmpty()) {
+                fallback = template;
+                continue;
+            }
+            for (Long professionalId : template.getProfessionalIds()) {
+                if (!known.contains(professionalId)) {
+                    throw new ProfessionalNotFoundException(professionalId);
+                }
+                templateByProfessional.put(professionalId, template);
+            }
+        }
+        if (fallback != null) {
+            for (Long professionalId : allIds) {
+                templateByProfessional.putIfAbsent(professionalId, fallback);
+            }
+        }
+        return templateByProfessional;
+    }
+
+    /**
+     * The rows were written behind the booking flow's back, so reload everything derived from the generated dates.
+     */
+    private void refreshReadModels(LocalDate from, LocalDate to) {
+        availabilityIndex.rebuild();
+        availabilityMaterializer.rebuild(from, to);
+        availabilityCache.evictAll();
+    }
+}
@@ -0,0 +1,230 @@
+package com.justlife.home.cleaning.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.availability.ProfessionalInfo;
+import com.justlife.home.cleaning.availability.ProfessionalSlots;
+import com.justlife.home.cleaning.availability.SlotBitmap;
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.event.AvailabilityReloadedEvent;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.TimeSlots;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Pushes availability of one date to server-sent event subscribers: a {@code snapshot} event with every available
+ * professional, then a {@code changed} event per committed change carrying the new free slots of each affected
+ * professional (an empty list once fully booked). Publishing never blocks: each event is serialized once and offered
+ * to every subscriber's bounded buffer, and a subscriber whose buffer is full is disconnected, to resubscribe for a
+ * fresh snapshot. Subscribers and evictions are published as {@code availability.stream.*} metrics.
+ */
+@Component
+@Slf4j
+public class AvailabilityBroadcaster {
+    static final String SNAPSHOT = "snapshot";
+    static final String CHANGED = "changed";
+
+    private final AvailabilityIndex availabilityIndex;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Map<LocalDate, Set<AvailabilitySubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Counter evictions;
+
+    /**
+     * Events are written to subscribers by {@code availability.stream.send-threads} threads, so a slow connection never
+     * holds up the thread that committed a booking. Each subscriber has at most one send task queued.
+     */
+    @Autowired
+    public AvailabilityBroadcaster(AvailabilityIndex availabilityIndex,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${availability.stream.send-threads:8}") int sendThreads,
+                                   @Value("${availability.stream.buffer-size:64}") int bufferSize,
+                                   @Value("${availability.stream.timeout:30m}") Duration timeout) {
+        this(availabilityIndex, objectMapper, meterRegistry, Executors.newFixedThreadPool(sendThreads, new CustomizableThreadFactory("availability-stream-")),
+                bufferSize, timeout);
+    }
+
+    public AvailabilityBroadcaster(AvailabilityIndex availabilityIndex,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   Executor executor,
+                                   int bufferSize,
+                                   Duration timeout) {
+        this.availabilityIndex = availabilityIndex;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.evictions = meterRegistry.counter("availability.stream.evictions");
+        Gauge.builder("availability.stream.subscribers", this, AvailabilityBroadcaster::subscriberCount).register(meterRegistry);
+    }
+
+    /**
+     * Registers the subscriber before reading the snapshot, so no change committed after the snapshot is missed.
+     * A change already in the snapshot may be sent again; {@code changed} events replace a professional's slots, so
+     * applying one twice is harmless.
+     */
+    public SseEmitter subscribe(LocalDate date, Supplier<List<AvailabilityResponse>> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AvailabilitySubscription subscription = new AvailabilitySubscription(date, emitter, bufferSize, executor);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        subscriptions.compute(date, (d, subscribers) -> {
+            Set<AvailabilitySubscription> updated = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            updated.add(subscription);
+            return updated;
+        });
+        try {
+            subscription.start(event(SNAPSHOT, snapshot.get()));
+        } catch (RuntimeException e) {
+            remove(subscription);
+            throw e;
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(subscribers -> subscribers.forEach(AvailabilitySubscription::close));
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Runs after {@link AvailabilityIndex} has applied the change, so indexed dates are sent as the index now
+     * answers them.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        Set<AvailabilitySubscription> subscribers = subscriptions.get(event.date());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        List<AvailabilityResponse> changed = new ArrayList<>();
+        event.availabilities().forEach((professionalId, availabilities) ->
+                changed.add(availabilityOf(event.date(), professionalId, availabilities)));
+        changed.sort(Comparator.comparing(AvailabilityResponse::getProfessionalId));
+        broadcast(subscribers, event(CHANGED, changed));
+    }
+
+    /**
+     * Sends the reloaded professionals' slots as a {@code changed} event, like a booking change.
+     */
+    @EventListener
+    public void onAvailabilityReloaded(AvailabilityReloadedEvent event) {
+        event.professionalIds().forEach((date, professionalIds) -> {
+            Set<AvailabilitySubscription> subscribers = subscriptions.get(date);
+            if (subscribers != null && !subscribers.isEmpty()) {
+                List<AvailabilityResponse> changed = professionalIds.stream()
+                        .sorted()
+                        .map(professionalId -> availabilityOf(date, professionalId, List.of()))
+                        .toList();
+                broadcast(subscribers, event(CHANGED, changed));
+            }
+        });
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds subscribers that went away without closing.
+     */
+    @Scheduled(initialDelayString = "${availability.stream.heartbeat:PT15S}", fixedDelayString = "${availability.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscriptions.values().forEach(subscribers -> broadcast(subscribers, heartbeat));
+    }
+
+    private void broadcast(Set<AvailabilitySubscription> subscribers, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (AvailabilitySubscription subscription : subscribers) {
+            if (subscription.offer(event)) {
+                continue;
+            }
+            // A subscription whose connection already failed is not slow, just gone
+            if (!subscription.isClosed()) {
+                log.info("Disconnecting slow availability subscriber for {}", subscription.date());
+                evictions.increment();
+                subscription.close();
+            }
+            remove(subscription);
+        }
+    }
+
+    private void remove(AvailabilitySubscription subscription) {
+        subscriptions.computeIfPresent(subscription.date(), (date, subscribers) -> {
+            subscribers.remove(subscription);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private AvailabilityResponse availabilityOf(LocalDate date, Long professionalId, List<Availability> availabilities) {
+        ProfessionalInfo professional = availabilityIndex.professional(professionalId);
+        List<TimeSlots> slots;
+        if (availabilityIndex.covers(date)) {
+            ProfessionalSlots indexed = availabilityIndex.findAvailable(date, professionalId);
+            slots = indexed == null ? List.of() : SlotBitmap.toTimeSlots(indexed.bitmap(), 0);
+        } else {
+            slots = availabilities.stream()
+                    .filter(availability -> availability.getStatus() == AvailabilityStatus.AVAILABLE)
+                    .sorted(Comparator.comparing(Availability::getStartTime))
+                    .map(availability -> TimeSlots.builder()
+                            .startTime(availability.getStartTime())
+                            .endTime(availability.getEndTime())
+                            .build())
+                    .toList();
+        }
+        return AvailabilityResponse.builder()
+                .professionalId(professionalId)
+                .name(professional == null ? null : professional.name())
+                .availabilities(slots)
+                .build();
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String name, List<AvailabilityResponse> availabilities) {
+        try {
+            return SseEmitter.event()
+                    .name(name)
+                    .data(objectMapper.writeValueAsString(availabilities), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize availability for " + name, e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.justlife.home.cleaning.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One subscriber's bounded buffer of pending events, written to its emitter by at most one executor task at a time.
+ * Nothing is written before {@link #start} has sent the snapshot. Events are built once and shared by every subscriber.
+ */
+class AvailabilitySubscription {
+    private final LocalDate date;
+    private final SseEmitter emitter;
+    private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+    private final Executor executor;
+    // Held while the snapshot is pending or a drain task is queued or running
+    private final AtomicBoolean draining = new AtomicBoolean(true);
+    private volatile boolean closed;
+
+    AvailabilitySubscription(LocalDate date, SseEmitter emitter, int bufferSize, Executor executor) {
+        this.date = date;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+    }
+
+    LocalDate date() {
+        return date;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void start(Set<ResponseBodyEmitter.DataWithMediaType> snapshot) {
+        if (send(snapshot)) {
+            draining.set(false);
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Queues an event without blocking. Returns {@code false} once the buffer is full, i.e. the subscriber is not
+     * keeping up.
+     */
+    boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (closed || !buffer.offer(event)) {
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Whether the subscription has ended, because its connection failed or it was disconnected.
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        closed = true;
+        buffer.clear();
+        emitter.complete();
+    }
+
+    private void scheduleDrain() {
+        if (!buffer.isEmpty() && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        Set<ResponseBodyEmitter.DataWithMediaType> event;
+        while (!closed && (event = buffer.poll()) != null) {
+            if (!send(event)) {
+                return;
+            }
+        }
+        draining.set(false);
+        // An event offered after the last poll but before the flag was released would otherwise wait for the next one
+        scheduleDrain();
+    }
+
+    private boolean send(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            close();
+            return false;
+        }
+    }
+}
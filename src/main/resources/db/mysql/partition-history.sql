@@ -0,0 +1,105 @@
+-- Monthly range partitioning of availability and booking, and the compressed archive tables, for HistoryArchiver.
+-- Run once against the schema Hibernate created, in a maintenance window: both tables are rebuilt. Then set
+-- archive.enabled=true. Each table gets one partition per month, from its oldest row up to three months ahead
+-- (archive.partitions-ahead) or its newest row if that is later, plus the catch-all partition pmax. The archiver then
+-- only ever splits the next months off an almost empty pmax, and drops the months it has archived.
+--
+-- Queries with a date (availability) or start_date_time (booking) predicate then only read the matching months.
+
+-- Partitioned InnoDB tables can neither have foreign keys nor be referenced by one. The entities no longer declare
+-- these, so ddl-auto=update does not add them back.
+SET @drop_fk = IFNULL((SELECT CONCAT('ALTER TABLE availability DROP FOREIGN KEY ', CONSTRAINT_NAME)
+                       FROM information_schema.REFERENTIAL_CONSTRAINTS
+                       WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'availability' LIMIT 1), 'DO 0');
+PREPARE stmt FROM @drop_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @drop_fk = IFNULL((SELECT CONCAT('ALTER TABLE booking_professional DROP FOREIGN KEY ', CONSTRAINT_NAME)
+                       FROM information_schema.REFERENTIAL_CONSTRAINTS
+                       WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'booking_professional'
+                         AND REFERENCED_TABLE_NAME = 'booking' LIMIT 1), 'DO 0');
+PREPARE stmt FROM @drop_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- The partitioning column has to be part of every unique key, the primary key included.
+ALTER TABLE availability
+    MODIFY date DATE NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, date);
+
+-- One partition per month from @first_month to @last_month, then pmax. Built as text, since PARTITION BY takes no
+-- expressions.
+SET SESSION group_concat_max_len = 1048576;
+
+SELECT CAST(DATE_FORMAT(LEAST(IFNULL(MIN(date), CURDATE()), CURDATE()), '%Y-%m-01') AS DATE),
+       CAST(DATE_FORMAT(GREATEST(IFNULL(MAX(date), CURDATE()), CURDATE() + INTERVAL 3 MONTH), '%Y-%m-01') AS DATE)
+INTO @first_month, @last_month
+FROM availability;
+
+SET @partition_by = (
+    WITH RECURSIVE months (month_start) AS (
+        SELECT CAST(@first_month AS DATE)
+        UNION ALL
+        SELECT month_start + INTERVAL 1 MONTH FROM months WHERE month_start < CAST(@last_month AS DATE))
+    SELECT CONCAT('ALTER TABLE availability PARTITION BY RANGE COLUMNS (date) (',
+                  GROUP_CONCAT(CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                                      ' VALUES LESS THAN (''', month_start + INTERVAL 1 MONTH, '''), ')
+                               ORDER BY month_start SEPARATOR ''),
+                  'PARTITION pmax VALUES LESS THAN (MAXVALUE))')
+    FROM months);
+PREPARE stmt FROM @partition_by;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE booking
+    MODIFY start_date_time DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, start_date_time);
+
+SELECT CAST(DATE_FORMAT(LEAST(IFNULL(MIN(start_date_time), CURDATE()), CURDATE()), '%Y-%m-01') AS DATE),
+       CAST(DATE_FORMAT(GREATEST(IFNULL(MAX(start_date_time), CURDATE()), CURDATE() + INTERVAL 3 MONTH), '%Y-%m-01') AS DATE)
+INTO @first_month, @last_month
+FROM booking;
+
+SET @partition_by = (
+    WITH RECURSIVE months (month_start) AS (
+        SELECT CAST(@first_month AS DATE)
+        UNION ALL
+        SELECT month_start + INTERVAL 1 MONTH FROM months WHERE month_start < CAST(@last_month AS DATE))
+    SELECT CONCAT('ALTER TABLE booking PARTITION BY RANGE COLUMNS (start_date_time) (',
+                  GROUP_CONCAT(CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                                      ' VALUES LESS THAN (''', month_start + INTERVAL 1 MONTH, '''), ')
+                               ORDER BY month_start SEPARATOR ''),
+                  'PARTITION pmax VALUES LESS THAN (MAXVALUE))')
+    FROM months);
+PREPARE stmt FROM @partition_by;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Archived rows are only read for reporting, so they trade CPU for roughly half the space.
+CREATE TABLE IF NOT EXISTS availability_archive (
+    id                       BIGINT      NOT NULL PRIMARY KEY,
+    cleaning_professional_id BIGINT,
+    date                     DATE        NOT NULL,
+    status                   VARCHAR(50),
+    start_time               TIME(6),
+    end_time                 TIME(6),
+    version                  BIGINT      NOT NULL,
+    KEY idx_availability_archive_date (date)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
+
+CREATE TABLE IF NOT EXISTS booking_archive (
+    id              BIGINT      NOT NULL PRIMARY KEY,
+    start_date_time DATETIME(6) NOT NULL,
+    end_date_time   DATETIME(6),
+    version         BIGINT      NOT NULL,
+    KEY idx_booking_archive_start (start_date_time)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
+
+CREATE TABLE IF NOT EXISTS booking_professional_archive (
+    booking_id      BIGINT NOT NULL,
+    professional_id BIGINT NOT NULL,
+    PRIMARY KEY (booking_id, professional_id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
@@ -0,0 +1,186 @@
+package com.justlife.home.cleaning.functional;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.codec.AvailabilityBinaryCodec;
+import com.justlife.home.cleaning.codec.AvailabilityColumnsCodec;
+import com.justlife.home.cleaning.codec.AvailabilityHttpMessageConverter;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.Vehicle;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.repository.BookingRepository;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.VehicleRepository;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AvailabilityEncodingFunctionalTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CleaningProfessionalRepository cleaningProfessionalRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private final LocalDate date = LocalDate.now().plusDays(1);
+    private MockMvc mockMvc;
+    private Long professionalId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        cleaningProfessionalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleNumber("Vehicle 1");
+        vehicleRepository.save(vehicle);
+        for (String name : List.of("John Doe", "Jane Smith")) {
+            CleaningProfessional professional = new CleaningProfessional();
+            professional.setName(name);
+            professional.setVehicle(vehicle);
+            professional.setAvailabilities(List.of(Availability.builder()
+                    .cleaningProfessional(professional)
+                    .date(date)
+                    .status(AvailabilityStatus.AVAILABLE)
+                    .startTime(LocalTime.of(8, 0))
+                    .endTime(LocalTime.of(22, 0))
+                    .build()));
+            professionalId = cleaningProfessionalRepository.save(professional).getId();
+        }
+        availabilityIndex.rebuild();
+    }
+
+    @Test
+    void testCheckAvailability_NegotiatesEncoding() throws Exception {
+        MvcResult json = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())).andReturn();
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, json.getResponse().getContentType());
+        List<AvailabilityResponse> expected = objectMapper.readValue(json.getResponse().getContentAsByteArray(), new TypeReference<>() {
+        });
+        assertEquals(2, expected.size());
+
+        MvcResult binary = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())
+                .accept(AvailabilityHttpMessageConverter.BINARY)).andReturn();
+        assertEquals(AvailabilityHttpMessageConverter.BINARY_VALUE, binary.getResponse().getContentType());
+        assertEquals(expected, AvailabilityBinaryCodec.read(new ByteArrayInputStream(binary.getResponse().getContentAsByteArray())));
+
+        MvcResult columns = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())
+                .accept(AvailabilityHttpMessageConverter.COLUMNS)).andReturn();
+        assertEquals(AvailabilityHttpMessageConverter.COLUMNS_VALUE, columns.getResponse().getContentType());
+        assertEquals(expected, AvailabilityColumnsCodec.read(
+                objectMapper.getFactory().createParser(columns.getResponse().getContentAsByteArray()), objectMapper));
+    }
+
+    @Test
+    void testCheckAvailability_AnswersUnchangedDateWithNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())).andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        assertTrue(eTag.startsWith("\""));
+
+        MvcResult unchanged = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)).andReturn();
+        assertEquals(304, unchanged.getResponse().getStatus());
+        assertEquals(0, unchanged.getResponse().getContentLength());
+
+        MvcResult otherEncoding = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag).accept(AvailabilityHttpMessageConverter.BINARY)).andReturn();
+        assertEquals(200, otherEncoding.getResponse().getStatus());
+
+        MvcResult otherDate = mockMvc.perform(get("/api/bookings/availability").param("date", date.plusDays(1).toString())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)).andReturn();
+        assertEquals(200, otherDate.getResponse().getStatus());
+
+        bookingService.createBooking(LocalDateTime.of(date, LocalTime.of(10, 0)), 2, List.of(professionalId));
+
+        MvcResult changed = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)).andReturn();
+        assertEquals(200, changed.getResponse().getStatus());
+        assertNotEquals(eTag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testCheckAvailability_ShowsRowsWrittenOutsideTheBookingFlow() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())).andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        CleaningProfessional professional = new CleaningProfessional();
+        professional.setName("Added Elsewhere");
+        professional.setVehicle(vehicleRepository.findAll().get(0));
+        professional.setAvailabilities(List.of(Availability.builder()
+                .cleaningProfessional(professional)
+                .date(date)
+                .status(AvailabilityStatus.AVAILABLE)
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(12, 0))
+                .build()));
+        cleaningProfessionalRepository.save(professional);
+
+        MvcResult changed = mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)).andReturn();
+        assertEquals(200, changed.getResponse().getStatus());
+        List<AvailabilityResponse> availabilities = objectMapper.readValue(changed.getResponse().getContentAsByteArray(), new TypeReference<>() {
+        });
+        assertEquals(3, availabilities.size());
+    }
+
+    @Test
+    void testStartTimesOffTheSlotGridAreRejected() throws Exception {
+        LocalDateTime offGrid = LocalDateTime.of(date, LocalTime.of(8, 15));
+
+        assertEquals(400, mockMvc.perform(get("/api/bookings/availability").param("date", date.toString())
+                .param("startTime", offGrid.toString()).param("duration", "2")).andReturn().getResponse().getStatus());
+        assertEquals(400, mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"startTime\":\"" + offGrid + "\",\"duration\":2,\"professionalIds\":[" + professionalId + "]}"))
+                .andReturn().getResponse().getStatus());
+        assertEquals(201, mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"startTime\":\"" + offGrid.plusMinutes(15) + "\",\"duration\":2,\"professionalIds\":[" + professionalId + "]}"))
+                .andReturn().getResponse().getStatus());
+    }
+}
@@ -0,0 +1,111 @@
+package com.justlife.home.cleaning.functional;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.Vehicle;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.VehicleRepository;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.TimeSlots;
+import com.justlife.home.cleaning.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:availability-stream")
+@ActiveProfiles("test")
+class AvailabilityStreamFunctionalTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CleaningProfessionalRepository cleaningProfessionalRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    @Test
+    void testSubscribeAvailability_SendsSnapshotThenChanges() throws Exception {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleNumber("Vehicle 1");
+        vehicleRepository.save(vehicle);
+        CleaningProfessional professional = new CleaningProfessional();
+        professional.setName("John Doe");
+        professional.setVehicle(vehicle);
+        professional.setAvailabilities(List.of(Availability.builder()
+                .cleaningProfessional(professional)
+                .date(date)
+                .status(AvailabilityStatus.AVAILABLE)
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(12, 0))
+                .build()));
+        Long professionalId = cleaningProfessionalRepository.save(professional).getId();
+        availabilityIndex.rebuild();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/bookings/availability/subscribe?date=" + date))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        try (BufferedReader events = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            List<AvailabilityResponse> snapshot = nextEvent(events, "snapshot");
+            assertEquals(List.of(professionalId), snapshot.stream().map(AvailabilityResponse::getProfessionalId).toList());
+
+            bookingService.createBooking(LocalDateTime.of(date, LocalTime.of(8, 0)), 2, List.of(professionalId));
+
+            List<AvailabilityResponse> changed = nextEvent(events, "changed");
+            assertEquals(1, changed.size());
+            assertEquals("John Doe", changed.get(0).getName());
+            assertEquals(List.of(LocalTime.of(10, 0)), changed.get(0).getAvailabilities().stream().map(TimeSlots::getStartTime).toList());
+        }
+    }
+
+    private List<AvailabilityResponse> nextEvent(BufferedReader events, String name) throws IOException {
+        String event = null;
+        String line;
+        while ((line = events.readLine()) != null) {
+            if (line.startsWith("event:")) {
+                event = line.substring("event:".length());
+            } else if (line.startsWith("data:") && name.equals(event)) {
+                return objectMapper.readValue(line.substring("data:".length()), new TypeReference<>() {
+                });
+            }
+        }
+        return fail("Stream ended before a " + name + " event");
+    }
+}
@@ -0,0 +1,189 @@
+package com.justlife.home.cleaning.functional;
+
+import com.justlife.home.cleaning.exception.AvailabilityException;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.Booking;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.Vehicle;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.repository.BookingRepository;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.VehicleRepository;
+import com.justlife.home.cleaning.service.BookingService;
+import com.justlife.home.cleaning.service.impl.BookingServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers the same professionals from many threads through the public {@link BookingService} and checks that no
+ * professional ends up with overlapping bookings. Not transactional: every booking has to commit for real.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class BookingConcurrencyFunctionalTest {
+    private static final int THREADS = 12;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingServiceImpl bookingServiceImpl;
+
+    @Autowired
+    private CleaningProfessionalRepository cleaningProfessionalRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> professionalIds = new ArrayList<>();
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        date = LocalDate.now().plusDays(1);
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleNumber("Vehicle 1");
+        vehicleRepository.save(vehicle);
+
+        for (int i = 1; i <= 3; i++) {
+            CleaningProfessional professional = new CleaningProfessional();
+            professional.setName("Professional " + i);
+            professional.setVehicle(vehicle);
+            Availability availability = Availability.builder()
+                    .cleaningProfessional(professional)
+                    .date(date)
+                    .status(AvailabilityStatus.AVAILABLE)
+                    .startTime(LocalTime.of(8, 0))
+                    .endTime(LocalTime.of(20, 0))
+                    .build();
+            professional.setAvailabilities(List.of(availability));
+            professionalIds.add(cleaningProfessionalRepository.save(professional).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        cleaningProfessionalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+        professionalIds.clear();
+    }
+
+    @Test
+    void testConcurrentBookings_NeverDoubleBook() throws InterruptedException {
+        runConcurrentBookings(bookingService);
+    }
+
+    /**
+     * Bypasses the in-JVM locks, as two application instances would, so only {@code @Version} checks stand between
+     * concurrent writers.
+     */
+    @Test
+    void testConcurrentBookingsWithoutLocks_NeverDoubleBook() throws InterruptedException {
+        runConcurrentBookings(bookingServiceImpl);
+    }
+
+    private void runConcurrentBookings(BookingService bookingService) throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    LocalDateTime startTime = LocalDateTime.of(date, LocalTime.of(random.nextInt(8, 18), 0));
+                    List<Long> team = new ArrayList<>(professionalIds);
+                    team.remove(random.nextInt(team.size()));
+                    try {
+                        bookingService.createBooking(startTime, random.nextInt(1, 3), team);
+                        created.incrementAndGet();
+                    } catch (AvailabilityException | OptimisticLockingFailureException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        log.error("Unexpected booking failure", e);
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - started) / 1e9;
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        log.info("{}: {} booking attempts from {} threads in {} s ({} attempts/s): {} created, {} rejected",
+                bookingService.getClass().getSimpleName(), attempts, THREADS, String.format("%.2f", seconds), String.format("%.0f", attempts / seconds),
+                created.get(), rejected.get());
+
+        assertEquals(0, failed.get());
+        assertTrue(created.get() > 0);
+        assertEquals(attempts, created.get() + rejected.get());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Booking> bookings = bookingRepository.findAll();
+            assertEquals(created.get(), bookings.size());
+
+            Map<Long, List<Booking>> bookingsByProfessional = new HashMap<>();
+            bookings.forEach(booking -> booking.getCleaningProfessionals().forEach(professional ->
+                    bookingsByProfessional.computeIfAbsent(professional.getId(), id -> new ArrayList<>()).add(booking)));
+            bookingsByProfessional.forEach((professionalId, professionalBookings) -> {
+                professionalBookings.sort(Comparator.comparing(Booking::getStartDateTime));
+                for (int i = 1; i < professionalBookings.size(); i++) {
+                    assertFalse(professionalBookings.get(i).getStartDateTime().isBefore(professionalBookings.get(i - 1).getEndDateTime()),
+                            "Professional " + professionalId + " is double booked");
+                }
+                long bookedSlots = availabilityRepository.findByCleaningProfessionalIdAndDate(professionalId, date).stream()
+                        .filter(availability -> availability.getStatus() == AvailabilityStatus.BOOKED)
+                        .count();
+                assertEquals(professionalBookings.size(), bookedSlots);
+            });
+        });
+    }
+}
@@ -1,17 +1,31 @@
 package com.justlife.home.cleaning.functional;
 
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.availability.AvailabilityMaterializer;
 import com.justlife.home.cleaning.exception.AvailabilityException;
 import com.justlife.home.cleaning.exception.BookingNotFoundException;
 import com.justlife.home.cleaning.exception.DifferentVehicleException;
+import com.justlife.home.cleaning.exception.ProfessionalNotFoundException;
+import com.justlife.home.cleaning.metrics.QueryCounter;
 import com.justlife.home.cleaning.model.*;
 import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.model.enums.RecurrenceFrequency;
 import com.justlife.home.cleaning.repository.AvailabilityRepository;
 import com.justlife.home.cleaning.repository.BookingRepository;
 import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
 import com.justlife.home.cleaning.repository.VehicleRepository;
+import com.justlife.home.cleaning.request.BookingRequest;
+import com.justlife.home.cleaning.response.AvailabilityPageResponse;
 import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.BookingBatchItemResponse;
+import com.justlife.home.cleaning.response.BookingBatchResponse;
+import com.justlife.home.cleaning.response.BookingPageResponse;
 import com.justlife.home.cleaning.response.BookingResponse;
+import com.justlife.home.cleaning.response.SlotSuggestionResponse;
+import com.justlife.home.cleaning.response.TimeSlots;
 import com.justlife.home.cleaning.service.impl.BookingServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,7 +36,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,6 +63,15 @@ class BookingServiceImplFunctionalTest {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private AvailabilityMaterializer availabilityMaterializer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private CleaningProfessional professional1;
     private CleaningProfessional professional2;
     private Vehicle vehicle;
@@ -91,6 +116,7 @@ class BookingServiceImplFunctionalTest {
         professional2.setAvailabilities(Collections.singletonList(availability2));
         professional2 = cleaningProfessionalRepository.save(professional2);
 
+        availabilityIndex.rebuild();
     }
 
     @Test
@@ -100,6 +126,54 @@ class BookingServiceImplFunctionalTest {
         assertEquals(2, availabilityResponses.size());
     }
 
+    @Test
+    void testCheckAvailabilityPage_WalksProfessionalsById() {
+        AvailabilityPageResponse firstPage = bookingService.checkAvailability(LocalDate.now(), null, 0, null, 1);
+        assertEquals(List.of(professional1.getId()), firstPage.getAvailabilities().stream().map(AvailabilityResponse::getProfessionalId).toList());
+        assertEquals(professional1.getId(), firstPage.getNextCursor());
+
+        AvailabilityPageResponse lastPage = bookingService.checkAvailability(LocalDate.now(), null, 0, firstPage.getNextCursor(), 1);
+        assertEquals(List.of(professional2.getId()), lastPage.getAvailabilities().stream().map(AvailabilityResponse::getProfessionalId).toList());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void testCheckAvailabilityPageAndStream_ReadPastDatesFromDatabase() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        availabilityRepository.saveAll(List.of(
+                availability(professional1, yesterday, AvailabilityStatus.AVAILABLE, 8, 10),
+                availability(professional1, yesterday, AvailabilityStatus.AVAILABLE, 12, 14),
+                availability(professional2, yesterday, AvailabilityStatus.BOOKED, 8, 10)));
+
+        AvailabilityPageResponse page = bookingService.checkAvailability(yesterday, null, 0, null, 10);
+        assertEquals(1, page.getAvailabilities().size());
+        assertEquals(2, page.getAvailabilities().get(0).getAvailabilities().size());
+        assertNull(page.getNextCursor());
+
+        List<AvailabilityResponse> streamed = new ArrayList<>();
+        bookingService.streamAvailability(yesterday, LocalDateTime.of(yesterday, LocalTime.of(12, 0)), 2, streamed::add);
+        assertEquals(List.of(professional1.getId()), streamed.stream().map(AvailabilityResponse::getProfessionalId).toList());
+        assertEquals(LocalTime.of(8, 0), streamed.get(0).getAvailabilities().get(0).getStartTime());
+    }
+
+    @Test
+    void testCheckAvailability_ReadsPastDatesFromMaterializedSummaries() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        availabilityRepository.saveAll(List.of(
+                availability(professional1, yesterday, AvailabilityStatus.AVAILABLE, 8, 10),
+                availability(professional1, yesterday, AvailabilityStatus.AVAILABLE, 10, 14),
+                availability(professional1, yesterday, AvailabilityStatus.BOOKED, 11, 12),
+                availability(professional2, yesterday, AvailabilityStatus.BOOKED, 8, 10)));
+        availabilityMaterializer.rebuild();
+
+        List<AvailabilityResponse> availabilities = bookingService.checkAvailability(yesterday, null, 0);
+        assertEquals(1, availabilities.size());
+        assertEquals(professional1.getId(), availabilities.get(0).getProfessionalId());
+        assertEquals("John Doe", availabilities.get(0).getName());
+        assertEquals(List.of(LocalTime.of(8, 0), LocalTime.of(12, 0)), availabilities.get(0).getAvailabilities().stream().map(TimeSlots::getStartTime).toList());
+        assertEquals(List.of(LocalTime.of(11, 0), LocalTime.of(14, 0)), availabilities.get(0).getAvailabilities().stream().map(TimeSlots::getEndTime).toList());
+    }
+
     @Test
     void testCreateBooking_Success() {
         LocalDateTime startTime = LocalDateTime.of(LocalDate.now(), LocalTime.of(10, 0));
@@ -115,6 +189,57 @@ class BookingServiceImplFunctionalTest {
         assertEquals(startTime, booking.getStartDateTime());
     }
 
+    @Test
+    void testCreateBooking_IsTimed() {
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now(), LocalTime.of(10, 0));
+        bookingService.createBooking(startTime, 2, List.of(professional1.getId()));
+
+        Timer timer = meterRegistry.find("booking.service").tag("method", "createBooking").timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 1);
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations").tag("repository", "BookingRepository").timer());
+    }
+
+    @Test
+    void testCreateBooking_SplitsAvailabilityWindow() {
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now(), LocalTime.of(10, 0));
+        bookingService.createBooking(startTime, 2, List.of(professional1.getId()));
+
+        List<Availability> availabilities = availabilityRepository.findByCleaningProfessionalIdAndDate(professional1.getId(), LocalDate.now());
+        assertEquals(3, availabilities.size());
+        assertTrue(availabilities.stream().anyMatch(a -> a.getStatus() == AvailabilityStatus.BOOKED
+                && a.getStartTime().equals(LocalTime.of(10, 0)) && a.getEndTime().equals(LocalTime.of(12, 0))));
+
+        // The booked slot can no longer be taken
+        LocalDateTime overlapping = LocalDateTime.of(LocalDate.now(), LocalTime.of(11, 0));
+        assertThrows(AvailabilityException.class, () -> {
+            bookingService.createBooking(overlapping, 1, List.of(professional1.getId()));
+        });
+    }
+
+    @Test
+    void testCreateBooking_SpansOneSlotRows() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        for (LocalTime slot = LocalTime.of(8, 0); slot.isBefore(LocalTime.of(11, 0)); slot = slot.plusMinutes(30)) {
+            availabilityRepository.save(Availability.builder()
+                    .cleaningProfessional(professional1)
+                    .date(tomorrow)
+                    .status(AvailabilityStatus.AVAILABLE)
+                    .startTime(slot)
+                    .endTime(slot.plusMinutes(30))
+                    .build());
+        }
+        availabilityIndex.rebuild();
+
+        bookingService.createBooking(LocalDateTime.of(tomorrow, LocalTime.of(8, 30)), 2, List.of(professional1.getId()));
+
+        List<String> rows = availabilityRepository.findByCleaningProfessionalIdAndDate(professional1.getId(), tomorrow).stream()
+                .sorted(Comparator.comparing(Availability::getStartTime))
+                .map(a -> a.getStartTime() + "-" + a.getEndTime() + " " + a.getStatus())
+                .toList();
+        assertEquals(List.of("08:00-08:30 AVAILABLE", "08:30-10:30 BOOKED", "10:30-11:00 AVAILABLE"), rows);
+    }
+
     @Test
     void testCreateBooking_DifferentVehicleException() {
         Vehicle vehicle2 = new Vehicle();
@@ -133,6 +258,91 @@ class BookingServiceImplFunctionalTest {
         });
     }
 
+    @Test
+    void testAssignBooking_PicksFreeProfessionalsOfOneVehicle() {
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now(), LocalTime.of(10, 0));
+        BookingResponse response = bookingService.assignBooking(startTime, 2, 2);
+
+        assertEquals(vehicle.getId(), response.getVehicleId());
+        assertEquals(List.of(professional1.getId(), professional2.getId()), response.getProfessionalIds().stream().sorted().toList());
+        assertThrows(AvailabilityException.class, () -> bookingService.assignBooking(startTime, 2, 3));
+    }
+
+    @Test
+    void testCreateBookings_ReportsEachRequest() {
+        LocalDate today = LocalDate.now();
+        BookingBatchResponse response = bookingService.createBookings(List.of(
+                bookingRequest(LocalDateTime.of(today, LocalTime.of(9, 0)), 2, professional1.getId(), professional2.getId()),
+                bookingRequest(LocalDateTime.of(today, LocalTime.of(10, 0)), 1, professional2.getId()),
+                bookingRequest(LocalDateTime.of(today, LocalTime.of(11, 0)), 2, professional1.getId()),
+                bookingRequest(LocalDateTime.of(today, LocalTime.of(11, 0)), 1, 999L)));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getFailed());
+        List<BookingBatchItemResponse> results = response.getResults();
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals("Overlaps booking 0 of the same batch.", results.get(1).getError());
+        assertEquals(201, results.get(2).getStatus());
+        assertEquals(404, results.get(3).getStatus());
+
+        Booking booking = bookingRepository.findById(results.get(0).getBooking().getId()).orElse(null);
+        assertNotNull(booking);
+        assertEquals(2, booking.getCleaningProfessionals().size());
+        assertTrue(availabilityRepository.findByCleaningProfessionalIdAndDate(professional1.getId(), today).stream()
+                .anyMatch(a -> a.getStatus() == AvailabilityStatus.BOOKED && a.getStartTime().equals(LocalTime.of(11, 0))));
+    }
+
+    @Test
+    void testCreateRecurringBooking_BooksEveryOccurrence() {
+        LocalDate today = LocalDate.now();
+        availabilityRepository.saveAll(List.of(
+                availability(professional1, today.plusWeeks(1), AvailabilityStatus.AVAILABLE, 8, 13),
+                availability(professional1, today.plusWeeks(2), AvailabilityStatus.AVAILABLE, 8, 13)));
+
+        List<BookingResponse> responses = bookingService.createRecurringBooking(LocalDateTime.of(today, LocalTime.of(10, 0)), 2,
+                List.of(professional1.getId()), RecurrenceFrequency.WEEKLY, 3);
+
+        assertEquals(List.of(today, today.plusWeeks(1), today.plusWeeks(2)),
+                responses.stream().map(response -> response.getStartTime().toLocalDate()).toList());
+        assertEquals(3, bookingRepository.count());
+        assertTrue(availabilityRepository.findByCleaningProfessionalIdAndDate(professional1.getId(), today.plusWeeks(2)).stream()
+                .anyMatch(a -> a.getStatus() == AvailabilityStatus.BOOKED && a.getStartTime().equals(LocalTime.of(10, 0))));
+    }
+
+    @Test
+    void testCreateRecurringBooking_BooksNothingWhenAnOccurrenceIsTaken() {
+        LocalDate today = LocalDate.now();
+        availabilityRepository.saveAll(List.of(
+                availability(professional1, today.plusWeeks(2), AvailabilityStatus.AVAILABLE, 11, 13)));
+
+        AvailabilityException exception = assertThrows(AvailabilityException.class, () -> bookingService.createRecurringBooking(
+                LocalDateTime.of(today, LocalTime.of(10, 0)), 2, List.of(professional1.getId()), RecurrenceFrequency.BIWEEKLY, 2));
+
+        assertTrue(exception.getMessage().contains(today.plusWeeks(2).toString()));
+        assertEquals(0, bookingRepository.count());
+    }
+
+    @Test
+    void testSuggestStartTimes_ReturnsEarliestStartsForTeam() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        availabilityRepository.saveAll(List.of(
+                availability(professional1, tomorrow, AvailabilityStatus.AVAILABLE, 8, 12),
+                availability(professional2, tomorrow, AvailabilityStatus.AVAILABLE, 10, 14)));
+        availabilityIndex.rebuild();
+
+        List<SlotSuggestionResponse> suggestions = bookingService.suggestStartTimes(tomorrow, LocalTime.of(8, 0), 2, 2, null, null, 1, 5);
+        assertEquals(1, suggestions.size());
+        assertEquals(LocalDateTime.of(tomorrow, LocalTime.of(10, 0)), suggestions.get(0).getStartTime());
+        assertEquals(LocalDateTime.of(tomorrow, LocalTime.of(12, 0)), suggestions.get(0).getEndTime());
+        assertEquals(vehicle.getId(), suggestions.get(0).getVehicleId());
+        assertEquals(List.of(professional1.getId(), professional2.getId()), suggestions.get(0).getProfessionalIds().stream().sorted().toList());
+
+        assertEquals(List.of(LocalTime.of(11, 0), LocalTime.of(11, 30)), bookingService.suggestStartTimes(tomorrow, LocalTime.of(11, 0), 2,
+                1, null, List.of(professional2.getId()), 1, 2).stream().map(s -> s.getStartTime().toLocalTime()).toList());
+        assertThrows(ProfessionalNotFoundException.class, () -> bookingService.suggestStartTimes(tomorrow, null, 2, 1, null, List.of(999L), 1, 5));
+    }
+
     @Test
     void testUpdateBooking_Success() {
         LocalDateTime startTime = LocalDateTime.of(LocalDate.now(), LocalTime.of(9, 0));
@@ -170,6 +380,59 @@ class BookingServiceImplFunctionalTest {
         });
     }
 
+    @Test
+    void testGetBooking() {
+        BookingResponse created = bookingService.createBooking(LocalDateTime.of(LocalDate.now(), LocalTime.of(9, 0)), 2, List.of(professional1.getId(), professional2.getId()));
+
+        BookingResponse booking = bookingService.getBooking(created.getId());
+
+        assertEquals(created, booking);
+        assertThrows(BookingNotFoundException.class, () -> bookingService.getBooking(999L));
+    }
+
+    @Test
+    void testCancelBooking_ReleasesAvailability() {
+        LocalDate today = LocalDate.now();
+        BookingResponse created = bookingService.createBooking(LocalDateTime.of(today, LocalTime.of(10, 0)), 2, List.of(professional1.getId()));
+
+        bookingService.cancelBooking(created.getId());
+
+        assertFalse(bookingRepository.existsById(created.getId()));
+        List<Availability> availabilities = availabilityRepository.findByCleaningProfessionalIdAndDate(professional1.getId(), today);
+        assertEquals(1, availabilities.size());
+        assertEquals(AvailabilityStatus.AVAILABLE, availabilities.get(0).getStatus());
+        assertEquals(LocalTime.of(8, 0), availabilities.get(0).getStartTime());
+        assertEquals(LocalTime.of(13, 0), availabilities.get(0).getEndTime());
+        assertThrows(BookingNotFoundException.class, () -> bookingService.cancelBooking(created.getId()));
+    }
+
+    @Test
+    void testFindBookings_PagesWithTwoQueries() {
+        LocalDate today = LocalDate.now();
+        BookingResponse first = bookingService.createBooking(LocalDateTime.of(today, LocalTime.of(8, 0)), 1, List.of(professional1.getId()));
+        BookingResponse second = bookingService.createBooking(LocalDateTime.of(today, LocalTime.of(9, 0)), 2, List.of(professional1.getId(), professional2.getId()));
+        BookingResponse third = bookingService.createBooking(LocalDateTime.of(today, LocalTime.of(12, 0)), 1, List.of(professional2.getId()));
+        bookingRepository.flush();
+        LocalDateTime from = today.atStartOfDay();
+        LocalDateTime to = today.plusDays(1).atStartOfDay();
+
+        QueryCounter.start();
+        BookingPageResponse page = bookingService.findBookings(from, to, null, null, null, 2);
+        int statements = QueryCounter.stop();
+
+        assertEquals(List.of(first, second), page.getBookings());
+        assertEquals(second.getId(), page.getNextCursor());
+        assertEquals(2, statements);
+
+        BookingPageResponse lastPage = bookingService.findBookings(from, to, null, null, page.getNextCursor(), 2);
+        assertEquals(List.of(third), lastPage.getBookings());
+        assertNull(lastPage.getNextCursor());
+
+        assertEquals(List.of(second, third), bookingService.findBookings(from, to, professional2.getId(), null, null, 10).getBookings());
+        assertEquals(3, bookingService.findBookings(from, to, null, vehicle.getId(), null, 10).getBookings().size());
+        assertTrue(bookingService.findBookings(to, to.plusDays(1), null, null, null, 10).getBookings().isEmpty());
+    }
+
     @Test
     void testUpdateBooking_BookingNotFoundException() {
         // Expect BookingNotFoundException for non-existent booking ID
@@ -178,4 +441,22 @@ class BookingServiceImplFunctionalTest {
             bookingService.updateBooking(999L, newStartTime, 2); // Assuming 999L doesn't exist
         });
     }
+
+    private BookingRequest bookingRequest(LocalDateTime startTime, int duration, Long... professionalIds) {
+        BookingRequest request = new BookingRequest();
+        request.setStartTime(startTime);
+        request.setDuration(duration);
+        request.setProfessionalIds(List.of(professionalIds));
+        return request;
+    }
+
+    private Availability availability(CleaningProfessional professional, LocalDate date, AvailabilityStatus status, int startHour, int endHour) {
+        return Availability.builder()
+                .cleaningProfessional(professional)
+                .date(date)
+                .status(status)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(endHour, 0))
+                .build();
+    }
 }
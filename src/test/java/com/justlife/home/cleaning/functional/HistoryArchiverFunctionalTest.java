@@ -0,0 +1,128 @@
+package com.justlife.home.cleaning.functional;
+
+import com.justlife.home.cleaning.archive.HistoryArchiver;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.Booking;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.Vehicle;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.repository.BookingRepository;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HistoryArchiverFunctionalTest {
+
+    @Autowired
+    private HistoryArchiver historyArchiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CleaningProfessionalRepository cleaningProfessionalRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private CleaningProfessional professional;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        now = LocalDateTime.of(2026, 6, 15, 12, 0);
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleNumber("Vehicle 1");
+        vehicleRepository.save(vehicle);
+
+        professional = new CleaningProfessional();
+        professional.setName("Professional 1");
+        professional.setVehicle(vehicle);
+        professional = cleaningProfessionalRepository.save(professional);
+
+        // 90 days before now is March 17: January and February are archived, March is kept whole
+        for (LocalDate date : List.of(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 1), LocalDate.of(2026, 6, 16))) {
+            saveAvailability(date);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM availability_archive");
+        jdbcTemplate.update("DELETE FROM booking_professional_archive");
+        jdbcTemplate.update("DELETE FROM booking_archive");
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        cleaningProfessionalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    @Test
+    void testArchive_MovesMonthsPastRetention() {
+        historyArchiver.archive(now);
+
+        assertEquals(List.of(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 6, 16)),
+                availabilityRepository.findAll().stream().map(Availability::getDate).sorted().toList());
+        assertEquals(List.of(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 2, 28)),
+                jdbcTemplate.queryForList("SELECT date FROM availability_archive ORDER BY date", LocalDate.class));
+
+        historyArchiver.archive(now);
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM availability_archive", Integer.class));
+    }
+
+    @Test
+    void testArchive_MovesBookingsWithTheirProfessionals() {
+        Booking old = saveBooking(LocalDateTime.of(2025, 5, 20, 9, 0));
+        Booking recent = saveBooking(LocalDateTime.of(2025, 6, 2, 9, 0));
+
+        historyArchiver.archive(now);
+
+        assertEquals(List.of(recent.getId()), bookingRepository.findAll().stream().map(Booking::getId).toList());
+        assertEquals(List.of(old.getId()), jdbcTemplate.queryForList("SELECT id FROM booking_archive", Long.class));
+        assertEquals(List.of(professional.getId()), jdbcTemplate.queryForList(
+                "SELECT professional_id FROM booking_professional_archive WHERE booking_id = ?", Long.class, old.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_professional", Integer.class));
+    }
+
+    private void saveAvailability(LocalDate date) {
+        Availability availability = new Availability();
+        availability.setCleaningProfessional(professional);
+        availability.setDate(date);
+        availability.setStartTime(LocalTime.of(8, 0));
+        availability.setEndTime(LocalTime.of(18, 0));
+        availability.setStatus(AvailabilityStatus.AVAILABLE);
+        availabilityRepository.save(availability);
+    }
+
+    private Booking saveBooking(LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setStartDateTime(start);
+        booking.setEndDateTime(start.plusHours(2));
+        booking.setCleaningProfessionals(List.of(professional));
+        return bookingRepository.save(booking);
+    }
+}
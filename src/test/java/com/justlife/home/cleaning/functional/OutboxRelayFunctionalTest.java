@@ -0,0 +1,128 @@
+package com.justlife.home.cleaning.functional;
+
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.BookingEvent;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.Vehicle;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.model.enums.BookingEventType;
+import com.justlife.home.cleaning.outbox.InMemoryBookingEventSink;
+import com.justlife.home.cleaning.outbox.OutboxRelay;
+import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.repository.BookingEventJdbcRepository;
+import com.justlife.home.cleaning.repository.BookingRepository;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.VehicleRepository;
+import com.justlife.home.cleaning.response.BookingResponse;
+import com.justlife.home.cleaning.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: outbox rows are written just before the booking commits, and the relay only sees committed rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxRelayFunctionalTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryBookingEventSink sink;
+
+    @Autowired
+    private BookingEventJdbcRepository bookingEventJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CleaningProfessionalRepository cleaningProfessionalRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private CleaningProfessional professional;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        outboxRelay.relay();
+        date = LocalDate.now().plusDays(1);
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleNumber("Vehicle 1");
+        vehicleRepository.save(vehicle);
+
+        professional = new CleaningProfessional();
+        professional.setName("Professional 1");
+        professional.setVehicle(vehicle);
+        professional = cleaningProfessionalRepository.save(professional);
+
+        Availability availability = new Availability();
+        availability.setCleaningProfessional(professional);
+        availability.setDate(date);
+        availability.setStartTime(LocalTime.of(8, 0));
+        availability.setEndTime(LocalTime.of(18, 0));
+        availability.setStatus(AvailabilityStatus.AVAILABLE);
+        availabilityRepository.save(availability);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        cleaningProfessionalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    @Test
+    void testRelay_DeliversCommittedChangesInOrder() {
+        BookingResponse booking = bookingService.createBooking(LocalDateTime.of(date, LocalTime.of(9, 0)), 2, List.of(professional.getId()));
+        bookingService.updateBooking(booking.getId(), LocalDateTime.of(date, LocalTime.of(14, 0)), 2);
+
+        assertEquals(2, outboxRelay.relay());
+        assertEquals(0, outboxRelay.relay());
+
+        List<BookingEvent> events = sink.events().stream().filter(event -> event.getBookingId().equals(booking.getId())).toList();
+        assertEquals(List.of(BookingEventType.CREATED, BookingEventType.UPDATED), events.stream().map(BookingEvent::getType).toList());
+        assertTrue(events.get(1).getPayload().contains("14:00"));
+    }
+
+    @Test
+    void testRelay_KeepsEventsWhenTheSinkFails() {
+        BookingResponse booking = bookingService.createBooking(LocalDateTime.of(date, LocalTime.of(9, 0)), 2, List.of(professional.getId()));
+        OutboxRelay failingRelay = new OutboxRelay(bookingEventJdbcRepository, events -> {
+            throw new IllegalStateException("sink is down");
+        }, transactionTemplate, 500, Duration.ofDays(7));
+
+        assertThrows(IllegalStateException.class, failingRelay::relay);
+
+        assertEquals(1, outboxRelay.relay());
+        assertTrue(sink.events().stream().anyMatch(event -> event.getBookingId().equals(booking.getId())));
+    }
+}
@@ -0,0 +1,112 @@
+package com.justlife.home.cleaning.functional;
+
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.BookingResponse;
+import com.justlife.home.cleaning.service.impl.BookingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded databases standing in for a primary and its replica, without replication between them, so every row
+ * shows which one a statement went to.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "datasource.replica.url=jdbc:h2:mem:routing-replica",
+        "datasource.replica.username=sa",
+        "datasource.replica.password=password"})
+@ActiveProfiles("test")
+class ReplicaRoutingFunctionalTest {
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        if (replica.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'BOOKING'", Integer.class) == 0) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).execute(replicaDataSource);
+        }
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.update("DELETE FROM booking_professional");
+            database.update("DELETE FROM booking");
+            database.update("DELETE FROM availability");
+            database.update("DELETE FROM cleaning_professional");
+            database.update("DELETE FROM vehicle");
+        }
+    }
+
+    @Test
+    void testReadOnlyAvailabilityReadsGoToReplica() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        seedProfessional(replica, yesterday);
+
+        List<AvailabilityResponse> availabilities = bookingService.checkAvailability(yesterday, LocalDateTime.of(yesterday, LocalTime.of(9, 0)), 1);
+
+        assertEquals(1, availabilities.size());
+    }
+
+    @Test
+    void testBookingWritesAndTheirReadsGoToPrimary() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        long professionalId = seedProfessional(primary, tomorrow);
+
+        BookingResponse booking = bookingService.createBooking(LocalDateTime.of(tomorrow, LocalTime.of(9, 0)), 2, List.of(professionalId));
+
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM booking", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM booking", Integer.class));
+        assertEquals(booking.getId(), bookingService.getBooking(booking.getId()).getId());
+    }
+
+    @Test
+    void testIndexReloadReadsPrimary() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        long professionalId = seedProfessional(primary, tomorrow);
+
+        availabilityIndex.rebuild();
+
+        assertNotNull(availabilityIndex.findAvailable(tomorrow, professionalId));
+    }
+
+    private long seedProfessional(JdbcTemplate database, LocalDate date) {
+        database.update("INSERT INTO vehicle (vehicle_number) VALUES ('Vehicle 1')");
+        Long vehicleId = database.queryForObject("SELECT MAX(id) FROM vehicle", Long.class);
+        database.update("INSERT INTO cleaning_professional (name, vehicle_id) VALUES ('Professional 1', ?)", vehicleId);
+        Long professionalId = database.queryForObject("SELECT MAX(id) FROM cleaning_professional", Long.class);
+        database.update("INSERT INTO availability (cleaning_professional_id, date, status, start_time, end_time) VALUES (?, ?, 'AVAILABLE', '08:00:00', '12:00:00')",
+                professionalId, Date.valueOf(date));
+        return professionalId;
+    }
+}
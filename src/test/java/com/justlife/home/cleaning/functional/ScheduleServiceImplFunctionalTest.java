@@ -0,0 +1,135 @@
+package com.justlife.home.cleaning.functional;
+
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.Vehicle;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.repository.BookingRepository;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.VehicleRepository;
+import com.justlife.home.cleaning.request.WorkingHoursTemplate;
+import com.justlife.home.cleaning.response.ScheduleGenerationResponse;
+import com.justlife.home.cleaning.service.ScheduleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: chunks are generated on their own threads and transactions, one professional per chunk. Runs
+ * on its own database since the chunk size needs a separate application context.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:schedule-test", "schedule.generation.professionals-per-chunk=1"})
+@ActiveProfiles("test")
+class ScheduleServiceImplFunctionalTest {
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private CleaningProfessionalRepository cleaningProfessionalRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    private CleaningProfessional professional1;
+    private CleaningProfessional professional2;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setVehicleNumber("Vehicle 1");
+        vehicleRepository.save(vehicle);
+
+        professional1 = new CleaningProfessional();
+        professional1.setName("John Doe");
+        professional1.setVehicle(vehicle);
+        professional1 = cleaningProfessionalRepository.save(professional1);
+
+        professional2 = new CleaningProfessional();
+        professional2.setName("Jane Smith");
+        professional2.setVehicle(vehicle);
+        professional2 = cleaningProfessionalRepository.save(professional2);
+
+        // Already scheduled by hand on Tuesday, which generation must leave alone
+        availabilityRepository.save(Availability.builder()
+                .cleaningProfessional(professional1)
+                .date(monday.plusDays(1))
+                .status(AvailabilityStatus.AVAILABLE)
+                .startTime(LocalTime.of(12, 0))
+                .endTime(LocalTime.of(16, 0))
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        cleaningProfessionalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    @Test
+    void testGenerate_CreatesWorkingDaysAndSkipsExistingOnes() {
+        List<WorkingHoursTemplate> templates = List.of(
+                template(List.of(), 8, 22, Set.of(DayOfWeek.FRIDAY)),
+                template(List.of(professional2.getId()), 10, 18, Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)));
+
+        ScheduleGenerationResponse response = scheduleService.generate(monday, monday.plusDays(6), templates);
+
+        assertEquals(2, response.getProfessionals());
+        assertEquals(5 + 5, response.getCreated());
+        assertEquals(1, response.getSkipped());
+
+        List<Availability> tuesday = availabilityRepository.findByCleaningProfessionalIdAndDate(professional1.getId(), monday.plusDays(1));
+        assertEquals(1, tuesday.size());
+        assertEquals(LocalTime.of(12, 0), tuesday.get(0).getStartTime());
+        assertTrue(availabilityRepository.findByCleaningProfessionalIdAndDate(professional1.getId(), monday.plusDays(4)).isEmpty());
+        assertEquals(1, availabilityRepository.findByCleaningProfessionalIdAndDate(professional2.getId(), monday.plusDays(4)).size());
+        assertTrue(availabilityRepository.findByCleaningProfessionalIdAndDate(professional2.getId(), monday.plusDays(5)).isEmpty());
+
+        // The index is reloaded, so the new windows are bookable right away
+        assertEquals(List.of(professional1.getId()), availabilityIndex.findAvailable(monday, LocalTime.of(8, 0), LocalTime.of(10, 0)).stream()
+                .map(slots -> slots.professional().id())
+                .toList());
+
+        ScheduleGenerationResponse rerun = scheduleService.generate(monday, monday.plusDays(6), templates);
+        assertEquals(0, rerun.getCreated());
+        assertEquals(11, rerun.getSkipped());
+    }
+
+    private WorkingHoursTemplate template(List<Long> professionalIds, int startHour, int endHour, Set<DayOfWeek> daysOff) {
+        WorkingHoursTemplate template = new WorkingHoursTemplate();
+        template.setProfessionalIds(professionalIds);
+        template.setStartTime(LocalTime.of(startHour, 0));
+        template.setEndTime(LocalTime.of(endHour, 0));
+        template.setDaysOff(daysOff);
+        return template;
+    }
+}
@@ -0,0 +1,159 @@
+package com.justlife.home.cleaning.load;
+
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.availability.AvailabilityMaterializer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives {@code GET /api/bookings/availability} with many concurrent clients and logs p50/p99 latency and
+ * requests per second. Subclasses pick the request thread model; compare their log lines. The response cache is
+ * turned off, since every request asks for the same URL and would otherwise never reach the index or the database.
+ */
+@Tag("load")
+@TestPropertySource(properties = "availability.cache.maximum-size=0")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+abstract class AbstractAvailabilityLoadTest {
+    private static final int PROFESSIONALS = 200;
+    private static final int PAST_PROFESSIONALS = 50;
+    private static final int CLIENTS = 400;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private AvailabilityMaterializer availabilityMaterializer;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(32))
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final LocalDate date = LocalDate.now().plusDays(1);
+    private final LocalDate pastDate = LocalDate.now().minusDays(7);
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO vehicle (vehicle_number) VALUES ('Load test vehicle')");
+        Long vehicleId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM vehicle", Long.class);
+        List<Object[]> professionals = new ArrayList<>();
+        for (int i = 0; i < PROFESSIONALS; i++) {
+            professionals.add(new Object[]{"Professional " + i, vehicleId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cleaning_professional (name, vehicle_id) VALUES (?, ?)", professionals);
+
+        List<Long> professionalIds = jdbcTemplate.queryForList("SELECT id FROM cleaning_professional WHERE vehicle_id = ?", Long.class, vehicleId);
+        List<Object[]> availabilities = new ArrayList<>();
+        for (int i = 0; i < professionalIds.size(); i++) {
+            availabilities.add(new Object[]{professionalIds.get(i), Date.valueOf(date), "AVAILABLE", Time.valueOf(LocalTime.of(8, 0)), Time.valueOf(LocalTime.of(22, 0))});
+            if (i < PAST_PROFESSIONALS) {
+                availabilities.add(new Object[]{professionalIds.get(i), Date.valueOf(pastDate), "AVAILABLE", Time.valueOf(LocalTime.of(8, 0)), Time.valueOf(LocalTime.of(22, 0))});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO availability (cleaning_professional_id, date, status, start_time, end_time) VALUES (?, ?, ?, ?, ?)", availabilities);
+        availabilityIndex.rebuild();
+        availabilityMaterializer.rebuild();
+        // Both thread models must serve the same data, or their numbers are not comparable
+        assertEquals(PROFESSIONALS, availabilityIndex.findAvailable(date).size());
+        assertEquals(PAST_PROFESSIONALS, availabilityMaterializer.findByDate(pastDate).size());
+    }
+
+    @Test
+    void testIndexedAvailabilityUnderLoad() throws Exception {
+        run("indexed", "/api/bookings/availability?date=" + date + "&startTime=" + date + "T10:00:00&duration=2");
+    }
+
+    @Test
+    void testDatabaseAvailabilityUnderLoad() throws Exception {
+        run("database", "/api/bookings/availability?date=" + pastDate);
+    }
+
+    private void run(String scenario, String path) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + path);
+        execute(uri, WARMUP_REQUESTS);
+
+        long started = System.nanoTime();
+        long[] latencies = execute(uri, REQUESTS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        log.info("[{} threads, {}] {} requests from {} clients: p50={} ms, p99={} ms, max={} ms, {} req/s",
+                threadModel(), scenario, REQUESTS, CLIENTS,
+                millis(latencies[latencies.length / 2]), millis(latencies[(int) (latencies.length * 0.99)]),
+                millis(latencies[latencies.length - 1]), String.format("%.0f", REQUESTS / seconds));
+    }
+
+    private long[] execute(URI uri, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.execute(() -> {
+                try {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        long started = System.nanoTime();
+                        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        latencies[i] = System.nanoTime() - started;
+                        // An empty list is as wrong as an error: it would be measuring a cheaper response
+                        if (response.statusCode() != 200 || response.body().length <= "[]".length()) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("Load test request failed", e);
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        clients.shutdown();
+        assertEquals(0, failures.get());
+        return latencies;
+    }
+
+    protected abstract String threadModel();
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,15 @@
+package com.justlife.home.cleaning.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:platform-load", "spring.jpa.show-sql=false"})
+@ActiveProfiles("test")
+class PlatformThreadAvailabilityLoadTest extends AbstractAvailabilityLoadTest {
+
+    @Override
+    protected String threadModel() {
+        return "platform";
+    }
+}
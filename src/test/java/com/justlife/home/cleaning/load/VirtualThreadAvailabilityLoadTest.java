@@ -0,0 +1,21 @@
+package com.justlife.home.cleaning.load;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:virtual-load", "spring.jpa.show-sql=false"})
+@ActiveProfiles({"test", "virtual-threads"})
+@EnabledIf("runsOnJava21")
+class VirtualThreadAvailabilityLoadTest extends AbstractAvailabilityLoadTest {
+
+    static boolean runsOnJava21() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Override
+    protected String threadModel() {
+        return "virtual";
+    }
+}
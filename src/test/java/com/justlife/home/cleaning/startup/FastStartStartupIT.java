@@ -0,0 +1,126 @@
+package com.justlife.home.cleaning.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the time from launching the JVM to the first successful {@code GET /api/bookings/availability}, for the
+ * plain executable jar and for the fast-start layout (AOT, CDS archive, fast-start profile). Both run against an
+ * in-memory H2 database. Runs in {@code mvn -Pfast-start verify}, which passes the artifact locations, and writes the
+ * medians to {@code startup.report}. Set {@code startup.max-millis} to fail the build when fast start gets slower.
+ */
+@Slf4j
+class FastStartStartupIT {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final String MAIN_CLASS = "com.justlife.home.cleaning.HomeCleaningApplication";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    @Test
+    void testFastStart_ReachesFirstAvailabilityResponseSooner() throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar"));
+        Path fastStartDirectory = Path.of(System.getProperty("startup.fast-start-directory"));
+        int runs = Integer.getInteger("startup.runs", 3);
+        String h2 = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+
+        long plain = median(runs, "plain", jar.getParent(), List.of(
+                "-cp", jar.toString(), "-Dloader.path=" + h2, "org.springframework.boot.loader.launch.PropertiesLauncher"));
+        long fastStart = median(runs, "fast-start", fastStartDirectory, List.of(
+                "-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=off", "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=fast-start",
+                "-cp", jar.getFileName() + File.pathSeparator + h2, MAIN_CLASS));
+
+        String report = String.format("plain.millis=%d%nfast-start.millis=%d%nruns=%d%n", plain, fastStart, runs);
+        Files.writeString(Path.of(System.getProperty("startup.report")), report);
+        log.info("Time to first availability response: plain {} ms, fast-start {} ms (median of {})", plain, fastStart, runs);
+
+        Long maxMillis = Long.getLong("startup.max-millis");
+        if (maxMillis != null) {
+            assertTrue(fastStart <= maxMillis, "Fast start took " + fastStart + " ms, budget is " + maxMillis + " ms");
+        }
+    }
+
+    private long median(int runs, String label, Path workingDirectory, List<String> launch) throws Exception {
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = timeToFirstResponse(label + "-" + run, workingDirectory, launch);
+        }
+        Arrays.sort(millis);
+        return millis[runs / 2];
+    }
+
+    private long timeToFirstResponse(String name, Path workingDirectory, List<String> launch) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(launch);
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.sql.init.mode=always",
+                "--spring.sql.init.schema-locations=" + getClass().getResource("/schema-h2.sql")));
+        URI availability = URI.create("http://localhost:" + port + "/api/bookings/availability?date=" + LocalDate.now());
+
+        Path output = Path.of(System.getProperty("startup.report")).resolveSibling("startup-" + name + ".log");
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+        try {
+            while (System.nanoTime() - started < STARTUP_TIMEOUT.toNanos()) {
+                assertTrue(process.isAlive(), "Application exited during startup, see " + output);
+                if (isOk(availability)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+                Thread.sleep(10);
+            }
+            return fail("No availability response within " + STARTUP_TIMEOUT + ", see " + output);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private boolean isOk(URI uri) throws InterruptedException {
+        try {
+            return httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // Not listening yet
+            return false;
+        }
+    }
+
+    private int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
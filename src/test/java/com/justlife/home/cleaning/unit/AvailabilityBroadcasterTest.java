@@ -0,0 +1,91 @@
+package com.justlife.home.cleaning.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.availability.ProfessionalInfo;
+import com.justlife.home.cleaning.availability.ProfessionalSlots;
+import com.justlife.home.cleaning.availability.SlotBitmap;
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.stream.AvailabilityBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityBroadcasterTest {
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDate date = LocalDate.now();
+    private AvailabilityBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        // Send tasks never run, as for a subscriber that stopped reading
+        broadcaster = new AvailabilityBroadcaster(availabilityIndex, new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                task -> { }, 2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testOnAvailabilityChanged_DisconnectsSubscriberWithFullBuffer() {
+        when(availabilityIndex.covers(date)).thenReturn(true);
+        ProfessionalInfo professional = new ProfessionalInfo(1L, "John", 10L);
+        when(availabilityIndex.professional(1L)).thenReturn(professional);
+        when(availabilityIndex.findAvailable(date, 1L)).thenReturn(new ProfessionalSlots(professional, SlotBitmap.mask(16, 20)));
+
+        broadcaster.subscribe(date, List::of);
+        broadcaster.subscribe(date.plusDays(1), List::of);
+        assertEquals(2, broadcaster.subscriberCount());
+        assertEquals(2.0, meterRegistry.get("availability.stream.subscribers").gauge().value());
+
+        AvailabilityChangedEvent event = new AvailabilityChangedEvent(date, Map.of(1L, List.of()));
+        broadcaster.onAvailabilityChanged(event);
+        broadcaster.onAvailabilityChanged(event);
+        assertEquals(2, broadcaster.subscriberCount());
+
+        broadcaster.onAvailabilityChanged(event);
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("availability.stream.evictions").counter().count());
+    }
+
+    @Test
+    void testOnAvailabilityChanged_RemovesClosedSubscriberWithoutCountingEviction() {
+        when(availabilityIndex.covers(date)).thenReturn(true);
+        // Send tasks run right away, so a failed send closes the subscription on the spot
+        broadcaster = new AvailabilityBroadcaster(availabilityIndex, new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                Runnable::run, 2, Duration.ofMinutes(1));
+        SseEmitter emitter = broadcaster.subscribe(date, List::of);
+        emitter.complete();
+
+        AvailabilityChangedEvent event = new AvailabilityChangedEvent(date, Map.of(1L, List.of()));
+        broadcaster.onAvailabilityChanged(event);
+        broadcaster.onAvailabilityChanged(event);
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(0.0, meterRegistry.get("availability.stream.evictions").counter().count());
+    }
+
+    @Test
+    void testOnAvailabilityChanged_SkipsDatesWithoutSubscribers() {
+        broadcaster.subscribe(date.plusDays(1), List::of);
+
+        broadcaster.onAvailabilityChanged(new AvailabilityChangedEvent(date, Map.of(1L, List.of())));
+
+        verifyNoInteractions(availabilityIndex);
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+}
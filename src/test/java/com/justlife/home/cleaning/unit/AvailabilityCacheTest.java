@@ -0,0 +1,84 @@
+package com.justlife.home.cleaning.unit;
+
+import com.justlife.home.cleaning.availability.AvailabilityCache;
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCache availabilityCache;
+    private LocalDate today;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        availabilityCache = new AvailabilityCache(meterRegistry, 100, Duration.ofMinutes(1));
+        today = LocalDate.now();
+        tomorrow = today.plusDays(1);
+    }
+
+    @Test
+    void testGet_LoadsOncePerKey() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<AvailabilityResponse>> loader = () -> {
+            loads.incrementAndGet();
+            return List.of(AvailabilityResponse.builder().professionalId(1L).build());
+        };
+        LocalDateTime tenOClock = LocalDateTime.of(today, LocalTime.of(10, 0));
+
+        availabilityCache.get(today, null, 0, loader);
+        availabilityCache.get(today, null, 4, loader);
+        availabilityCache.get(today, tenOClock, 2, loader);
+        availabilityCache.get(today, tenOClock, 2, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "availability").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "availability").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testOnAvailabilityChanged_EvictsOnlyThatDate() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<AvailabilityResponse>> loader = () -> {
+            loads.incrementAndGet();
+            return List.of();
+        };
+        availabilityCache.get(today, null, 0, loader);
+        availabilityCache.get(tomorrow, null, 0, loader);
+
+        availabilityCache.onAvailabilityChanged(new AvailabilityChangedEvent(today, Map.of()));
+        availabilityCache.get(today, null, 0, loader);
+        availabilityCache.get(tomorrow, null, 0, loader);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testEvict_DropsResultsLoadedFromStaleState() {
+        // A read that started before the booking committed finishes after the eviction
+        availabilityCache.get(today, null, 0, () -> {
+            availabilityCache.evict(today);
+            return List.of(AvailabilityResponse.builder().professionalId(1L).build());
+        });
+
+        List<AvailabilityResponse> fresh = availabilityCache.get(today, null, 0, List::of);
+
+        assertTrue(fresh.isEmpty());
+    }
+}
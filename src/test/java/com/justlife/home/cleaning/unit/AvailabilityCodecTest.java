@@ -0,0 +1,72 @@
+package com.justlife.home.cleaning.unit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.home.cleaning.codec.AvailabilityBinaryCodec;
+import com.justlife.home.cleaning.codec.AvailabilityColumnsCodec;
+import com.justlife.home.cleaning.response.AvailabilityResponse;
+import com.justlife.home.cleaning.response.TimeSlots;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<AvailabilityResponse> availabilities = List.of(
+            availability(7L, "John", slot(8, 0, 9, 30), slot(11, 0, 0, 0)),
+            availability(3L, null),
+            availability(12L, "John", slot(0, 0, 0, 15), slot(22, 45, 23, 0)));
+
+    @Test
+    void testBinary_RoundTrips() throws IOException {
+        byte[] encoded = AvailabilityBinaryCodec.encode(availabilities);
+
+        assertEquals(availabilities, AvailabilityBinaryCodec.read(new ByteArrayInputStream(encoded)));
+        // Version, one dictionary name, then under six bytes per professional and slot
+        assertTrue(encoded.length < 40, "encoded to " + encoded.length + " bytes");
+    }
+
+    @Test
+    void testBinary_RejectsTruncatedInput() {
+        byte[] encoded = AvailabilityBinaryCodec.encode(availabilities);
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThrows(IOException.class, () -> AvailabilityBinaryCodec.read(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void testColumns_WritesOneArrayPerField() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            AvailabilityColumnsCodec.write(availabilities, generator);
+        }
+
+        assertEquals("{\"names\":[\"John\"],\"professionalIds\":[7,3,12],\"nameIndexes\":[0,-1,0],\"slotCounts\":[2,0,2],"
+                + "\"startMinutes\":[480,660,0,1365],\"endMinutes\":[570,1440,15,1380]}", out.toString());
+        assertEquals(availabilities, AvailabilityColumnsCodec.read(objectMapper.getFactory().createParser(out.toByteArray()), objectMapper));
+    }
+
+    private AvailabilityResponse availability(Long id, String name, TimeSlots... slots) {
+        return AvailabilityResponse.builder()
+                .professionalId(id)
+                .name(name)
+                .availabilities(List.of(slots))
+                .build();
+    }
+
+    private TimeSlots slot(int startHour, int startMinute, int endHour, int endMinute) {
+        return TimeSlots.builder()
+                .startTime(LocalTime.of(startHour, startMinute))
+                .endTime(LocalTime.of(endHour, endMinute))
+                .build();
+    }
+}
@@ -0,0 +1,328 @@
+package com.justlife.home.cleaning.unit;
+
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
+import com.justlife.home.cleaning.availability.ProfessionalInfo;
+import com.justlife.home.cleaning.availability.ProfessionalSlots;
+import com.justlife.home.cleaning.availability.SlotBitmap;
+import com.justlife.home.cleaning.availability.SlotSuggestion;
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.event.AvailabilityReloadedEvent;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.Vehicle;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilityRepository;
+import com.justlife.home.cleaning.repository.CleaningProfessionalRepository;
+import com.justlife.home.cleaning.repository.projection.AvailabilityWindow;
+import com.justlife.home.cleaning.repository.projection.ProfessionalSummary;
+import com.justlife.home.cleaning.response.TimeSlots;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityIndexTest {
+
+    @Mock
+    private CleaningProfessionalRepository cleaningProfessionalRepository;
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private AvailabilityIndex availabilityIndex;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void testRebuild_LoadsFreeSlotsFromWindows() {
+        ProfessionalSummary summary = mock(ProfessionalSummary.class);
+        when(summary.getId()).thenReturn(1L);
+        when(summary.getName()).thenReturn("John");
+        when(summary.getVehicleId()).thenReturn(10L);
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of(summary));
+        List<AvailabilityWindow> windows = List.of(
+                window(1L, AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(13, 0)),
+                window(1L, AvailabilityStatus.BOOKED, LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(windows);
+
+        availabilityIndex.rebuild();
+
+        assertTrue(availabilityIndex.covers(today));
+        assertFalse(availabilityIndex.covers(today.minusDays(1)));
+
+        List<ProfessionalSlots> available = availabilityIndex.findAvailable(today);
+        assertEquals(1, available.size());
+        assertEquals(10L, available.get(0).professional().vehicleId());
+        assertEquals(List.of(slot(8, 0, 9, 0), slot(11, 0, 13, 0)), SlotBitmap.toTimeSlots(available.get(0).bitmap(), 0));
+
+        assertTrue(availabilityIndex.findAvailable(today, LocalTime.of(9, 30), LocalTime.of(10, 30)).isEmpty());
+        assertEquals(1, availabilityIndex.findAvailable(today, LocalTime.of(11, 0), LocalTime.of(13, 0)).size());
+        assertTrue(availabilityIndex.findAvailable(today, LocalTime.of(12, 0), LocalTime.of(14, 0)).isEmpty());
+    }
+
+    @Test
+    void testOnAvailabilityChanged_ReplacesProfessionalDay() {
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of());
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of());
+        availabilityIndex.rebuild();
+
+        CleaningProfessional professional = professional(2L);
+        Availability free = availability(professional, AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        availabilityIndex.onAvailabilityChanged(new AvailabilityChangedEvent(today, Map.of(2L, List.of(free))));
+
+        assertEquals(1, availabilityIndex.findAvailable(today, LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+
+        free.setStatus(AvailabilityStatus.BOOKED);
+        availabilityIndex.onAvailabilityChanged(new AvailabilityChangedEvent(today, Map.of(2L, List.of(free))));
+
+        assertTrue(availabilityIndex.findAvailable(today).isEmpty());
+    }
+
+    @Test
+    void testRebuild_PublishesProfessionalsChangedSinceTheLastLoad() {
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of());
+        AvailabilityWindow first = window(1L, AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        AvailabilityWindow second = window(2L, AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of(first, second));
+        availabilityIndex.rebuild();
+        verify(eventPublisher).publishEvent((Object) new AvailabilityReloadedEvent(Map.of(today, Set.of(1L, 2L))));
+
+        AvailabilityWindow booked = window(2L, AvailabilityStatus.BOOKED, LocalTime.of(9, 0), LocalTime.of(10, 0));
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of(first, second, booked));
+        availabilityIndex.rebuild();
+        verify(eventPublisher).publishEvent((Object) new AvailabilityReloadedEvent(Map.of(today, Set.of(2L))));
+
+        availabilityIndex.rebuild();
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void testReload_ReplacesOneDateAndAddsUnknownProfessionals() {
+        ProfessionalSummary known = mock(ProfessionalSummary.class);
+        when(known.getId()).thenReturn(1L);
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of(known));
+        AvailabilityWindow first = window(1L, AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of(first));
+        availabilityIndex.rebuild();
+        clearInvocations(eventPublisher);
+
+        ProfessionalSummary summary = mock(ProfessionalSummary.class);
+        when(summary.getId()).thenReturn(2L);
+        when(summary.getName()).thenReturn("Added Elsewhere");
+        when(cleaningProfessionalRepository.findSummariesByIdIn(Set.of(2L))).thenReturn(List.of(summary));
+        AvailabilityWindow added = window(2L, AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        when(availabilityRepository.findWindowsOn(today)).thenReturn(List.of(first, added));
+
+        availabilityIndex.reload(today);
+
+        assertEquals(2, availabilityIndex.findAvailable(today, LocalTime.of(8, 0), LocalTime.of(12, 0)).size());
+        assertEquals("Added Elsewhere", availabilityIndex.findAvailable(today, 2L).professional().name());
+        verify(eventPublisher).publishEvent((Object) new AvailabilityReloadedEvent(Map.of(today, Set.of(2L))));
+
+        availabilityIndex.reload(today);
+        availabilityIndex.reload(today.minusDays(1));
+        verifyNoMoreInteractions(eventPublisher);
+        verify(availabilityRepository, never()).findWindowsOn(today.minusDays(1));
+    }
+
+    @Test
+    void testRebuild_KeepsChangesCommittedWhileReading() {
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of());
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of());
+        availabilityIndex.rebuild();
+
+        // A booking commits on another thread while the reload reads the table, which still shows the old row
+        Availability booked = availability(professional(5L), AvailabilityStatus.BOOKED, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        AvailabilityWindow stale = window(5L, AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        when(availabilityRepository.findWindowsFrom(today)).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> availabilityIndex.onAvailabilityChanged(
+                    new AvailabilityChangedEvent(today, Map.of(5L, List.of(booked))))).get(5, TimeUnit.SECONDS);
+            return List.of(stale);
+        });
+
+        availabilityIndex.rebuild();
+
+        assertTrue(availabilityIndex.findAvailable(today).isEmpty());
+    }
+
+    @Test
+    void testFindAvailable_MisalignedWindowsAreRoundedInwards() {
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of());
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of());
+        availabilityIndex.rebuild();
+
+        CleaningProfessional professional = professional(3L);
+        Availability free = availability(professional, AvailabilityStatus.AVAILABLE, LocalTime.of(8, 15), LocalTime.of(10, 45));
+        availabilityIndex.onAvailabilityChanged(new AvailabilityChangedEvent(today, Map.of(3L, List.of(free))));
+
+        List<ProfessionalSlots> available = availabilityIndex.findAvailable(today);
+        assertEquals(List.of(slot(8, 30, 10, 30)), SlotBitmap.toTimeSlots(available.get(0).bitmap(), 0));
+        assertTrue(availabilityIndex.findAvailable(today, LocalTime.of(8, 15), LocalTime.of(9, 15)).isEmpty());
+        assertTrue(availabilityIndex.findAvailable(today, LocalTime.of(22, 0), LocalTime.of(2, 0)).isEmpty());
+    }
+
+    @Test
+    void testStreamAvailable_StartsAfterCursor() {
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of());
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of());
+        availabilityIndex.rebuild();
+
+        Map<Long, List<Availability>> changed = Map.of(
+                4L, List.of(availability(professional(4L), AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0))),
+                7L, List.of(availability(professional(7L), AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(10, 0))),
+                9L, List.of(availability(professional(9L), AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0))));
+        availabilityIndex.onAvailabilityChanged(new AvailabilityChangedEvent(today, changed));
+
+        assertEquals(List.of(7L, 9L), ids(availabilityIndex.streamAvailable(today, null, null, 4L)));
+        assertEquals(List.of(7L, 9L), ids(availabilityIndex.streamAvailable(today, null, null, 5L)));
+        assertEquals(List.of(9L), ids(availabilityIndex.streamAvailable(today, LocalTime.of(10, 0), LocalTime.of(11, 0), 4L)));
+        assertEquals(List.of(), ids(availabilityIndex.streamAvailable(today, null, null, 9L)));
+    }
+
+    @Test
+    void testFindTeams_PrefersVehicleLeftWithLeastIdleTime() {
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of());
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of());
+        availabilityIndex.rebuild();
+
+        // Vehicle 1 is free all morning, vehicle 2 exactly for the booking; vehicle 3 has only one free professional
+        Map<Long, List<Availability>> changed = Map.of(
+                1L, List.of(availability(professional(1L, 1L), AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(13, 0))),
+                2L, List.of(availability(professional(2L, 1L), AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(13, 0))),
+                3L, List.of(availability(professional(3L, 2L), AvailabilityStatus.AVAILABLE, LocalTime.of(10, 0), LocalTime.of(12, 0))),
+                4L, List.of(availability(professional(4L, 2L), AvailabilityStatus.AVAILABLE, LocalTime.of(9, 0), LocalTime.of(12, 0))),
+                5L, List.of(availability(professional(5L, 3L), AvailabilityStatus.AVAILABLE, LocalTime.of(10, 0), LocalTime.of(12, 0))));
+        availabilityIndex.onAvailabilityChanged(new AvailabilityChangedEvent(today, changed));
+
+        List<List<ProfessionalInfo>> teams = availabilityIndex.findTeams(today, LocalTime.of(10, 0), LocalTime.of(12, 0), 2, 5);
+        assertEquals(List.of(List.of(3L, 4L), List.of(1L, 2L)), teams.stream()
+                .map(team -> team.stream().map(ProfessionalInfo::id).toList())
+                .toList());
+
+        // Professionals 3 and 5 both fit exactly, the lower vehicle id wins
+        assertEquals(List.of(3L), availabilityIndex.findTeams(today, LocalTime.of(10, 0), LocalTime.of(12, 0), 1, 1).get(0).stream()
+                .map(ProfessionalInfo::id).toList());
+        assertTrue(availabilityIndex.findTeams(today, LocalTime.of(10, 0), LocalTime.of(12, 0), 3, 5).isEmpty());
+    }
+
+    @Test
+    void testSuggestStarts_EarliestStartsForTeamWithinOneVehicle() {
+        when(cleaningProfessionalRepository.findAllSummaries()).thenReturn(List.of());
+        when(availabilityRepository.findWindowsFrom(today)).thenReturn(List.of());
+        availabilityIndex.rebuild();
+
+        Map<Long, List<Availability>> changed = Map.of(
+                1L, List.of(availability(professional(1L, 1L), AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(12, 0))),
+                2L, List.of(availability(professional(2L, 1L), AvailabilityStatus.AVAILABLE, LocalTime.of(9, 0), LocalTime.of(13, 0))),
+                3L, List.of(availability(professional(3L, 2L), AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(10, 0))));
+        availabilityIndex.onAvailabilityChanged(new AvailabilityChangedEvent(today, changed));
+
+        List<SlotSuggestion> pairs = availabilityIndex.suggestStarts(today, LocalTime.MIDNIGHT, 3, 4, 2, null, null, 5);
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(9, 30), LocalTime.of(10, 0)), startTimes(pairs));
+        assertEquals(List.of(1L, 2L), pairs.get(0).team().stream().map(ProfessionalInfo::id).toList());
+        assertEquals(List.of(LocalTime.of(9, 30), LocalTime.of(10, 0)),
+                startTimes(availabilityIndex.suggestStarts(today, LocalTime.of(9, 15), 1, 4, 2, null, null, 5)));
+
+        // Both vehicles can start at 8:00 with one professional, the lower vehicle id wins
+        List<SlotSuggestion> singles = availabilityIndex.suggestStarts(today, LocalTime.MIDNIGHT, 1, 4, 1, null, null, 2);
+        assertEquals(List.of(LocalTime.of(8, 0), LocalTime.of(8, 30)), startTimes(singles));
+        assertEquals(1L, singles.get(0).vehicleId());
+
+        List<SlotSuggestion> named = availabilityIndex.suggestStarts(today, LocalTime.MIDNIGHT, 1, 4, 1, null, Set.of(3L), 5);
+        assertEquals(List.of(LocalTime.of(8, 0)), startTimes(named));
+        assertEquals(2L, named.get(0).vehicleId());
+        assertTrue(availabilityIndex.suggestStarts(today, LocalTime.MIDNIGHT, 1, 4, 2, 2L, null, 5).isEmpty());
+    }
+
+    @Test
+    void testRunStarts_MarksSlotsFollowedByLongEnoughRun() {
+        long[] words = SlotBitmap.mask(16, 24);
+        long[] starts = SlotBitmap.runStarts(words, 0, 4);
+        assertEquals(SlotBitmap.mask(16, 21)[0], starts[0]);
+        assertTrue(SlotBitmap.isEmpty(SlotBitmap.runStarts(words, 0, 9), 0));
+    }
+
+    private List<LocalTime> startTimes(List<SlotSuggestion> suggestions) {
+        return suggestions.stream().map(suggestion -> suggestion.startTime().toLocalTime()).toList();
+    }
+
+    private List<Long> ids(Stream<ProfessionalSlots> slots) {
+        return slots.map(professionalSlots -> professionalSlots.professional().id()).toList();
+    }
+
+    private AvailabilityWindow window(Long professionalId, AvailabilityStatus status, LocalTime startTime, LocalTime endTime) {
+        AvailabilityWindow window = mock(AvailabilityWindow.class);
+        when(window.getProfessionalId()).thenReturn(professionalId);
+        when(window.getDate()).thenReturn(today);
+        when(window.getStatus()).thenReturn(status);
+        when(window.getStartTime()).thenReturn(startTime);
+        when(window.getEndTime()).thenReturn(endTime);
+        return window;
+    }
+
+    private CleaningProfessional professional(Long id) {
+        return professional(id, 1L);
+    }
+
+    private CleaningProfessional professional(Long id, Long vehicleId) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(vehicleId);
+        CleaningProfessional professional = new CleaningProfessional();
+        professional.setId(id);
+        professional.setName("Professional " + id);
+        professional.setVehicle(vehicle);
+        return professional;
+    }
+
+    private Availability availability(CleaningProfessional professional, AvailabilityStatus status, LocalTime startTime, LocalTime endTime) {
+        return Availability.builder()
+                .cleaningProfessional(professional)
+                .date(today)
+                .status(status)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+
+    private TimeSlots slot(int startHour, int startMinute, int endHour, int endMinute) {
+        return TimeSlots.builder()
+                .startTime(LocalTime.of(startHour, startMinute))
+                .endTime(LocalTime.of(endHour, endMinute))
+                .build();
+    }
+}
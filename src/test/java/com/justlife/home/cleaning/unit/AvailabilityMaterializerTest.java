@@ -0,0 +1,125 @@
+package com.justlife.home.cleaning.unit;
+
+import com.justlife.home.cleaning.availability.AvailabilityMaterializer;
+import com.justlife.home.cleaning.availability.FreeIntervals;
+import com.justlife.home.cleaning.event.AvailabilityChangedEvent;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.AvailabilitySummary;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.Vehicle;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import com.justlife.home.cleaning.repository.AvailabilitySummaryJdbcRepository;
+import com.justlife.home.cleaning.repository.AvailabilitySummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityMaterializerTest {
+
+    @Mock
+    private AvailabilitySummaryRepository summaryRepository;
+
+    @Mock
+    private AvailabilitySummaryJdbcRepository summaryJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private AvailabilityMaterializer materializer;
+
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void testFreeIntervals_MergesFreeRowsAndCutsOutBookings() {
+        FreeIntervals intervals = new FreeIntervals();
+        intervals.add(AvailabilityStatus.AVAILABLE, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        intervals.add(AvailabilityStatus.AVAILABLE, LocalTime.of(10, 0), LocalTime.of(14, 0));
+        intervals.add(AvailabilityStatus.BOOKED, LocalTime.of(11, 0), LocalTime.of(12, 30));
+        intervals.add(AvailabilityStatus.UNAVAILABLE, LocalTime.of(13, 30), LocalTime.of(15, 0));
+
+        String formatted = FreeIntervals.format(intervals.merge());
+        assertEquals("08:00-11:00,12:30-13:30", formatted);
+        assertEquals(intervals.merge(), FreeIntervals.parse(formatted));
+        assertTrue(FreeIntervals.parse("").isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnAvailabilityChanged_UpdatesAndDropsSummaries() {
+        AvailabilitySummary stale = AvailabilitySummary.builder().id(5L).date(today).professionalId(1L).freeIntervals("08:00-12:00").build();
+        AvailabilitySummary emptied = AvailabilitySummary.builder().id(6L).date(today).professionalId(2L).freeIntervals("08:00-10:00").build();
+        when(summaryRepository.findByDateAndProfessionalIdIn(eq(today), any())).thenReturn(List.of(stale, emptied));
+
+        CleaningProfessional first = professional(1L);
+        CleaningProfessional second = professional(2L);
+        CleaningProfessional third = professional(3L);
+        materializer.onAvailabilityChanged(new AvailabilityChangedEvent(today, Map.of(
+                1L, List.of(availability(first, AvailabilityStatus.AVAILABLE, 8, 9), availability(first, AvailabilityStatus.BOOKED, 9, 12)),
+                2L, List.of(availability(second, AvailabilityStatus.BOOKED, 8, 10)),
+                3L, List.of(availability(third, AvailabilityStatus.AVAILABLE, 14, 18)))));
+
+        verify(summaryRepository).deleteAll(List.of(emptied));
+        ArgumentCaptor<List<AvailabilitySummary>> saved = ArgumentCaptor.forClass(List.class);
+        verify(summaryRepository).saveAll(saved.capture());
+        Map<Long, AvailabilitySummary> byProfessional = saved.getValue().stream()
+                .collect(Collectors.toMap(AvailabilitySummary::getProfessionalId, summary -> summary));
+        assertSame(stale, byProfessional.get(1L));
+        assertEquals("08:00-09:00", stale.getFreeIntervals());
+        assertEquals("14:00-18:00", byProfessional.get(3L).getFreeIntervals());
+        assertEquals("Professional 3", byProfessional.get(3L).getName());
+        assertEquals(7L, byProfessional.get(3L).getVehicleId());
+        assertFalse(byProfessional.containsKey(2L));
+    }
+
+    @Test
+    void testRebuild_ReplacesOneDatePerTransaction() {
+        when(summaryJdbcRepository.findDates()).thenReturn(List.of(today, today.plusDays(1)));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(summaryJdbcRepository.replace(any())).thenReturn(2);
+
+        materializer.rebuild();
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(summaryJdbcRepository).replace(today);
+        verify(summaryJdbcRepository).replace(today.plusDays(1));
+        assertTrue(materializer.isReady());
+    }
+
+    private CleaningProfessional professional(Long id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(7L);
+        CleaningProfessional professional = new CleaningProfessional();
+        professional.setId(id);
+        professional.setName("Professional " + id);
+        professional.setVehicle(vehicle);
+        return professional;
+    }
+
+    private Availability availability(CleaningProfessional professional, AvailabilityStatus status, int startHour, int endHour) {
+        return Availability.builder()
+                .cleaningProfessional(professional)
+                .date(today)
+                .status(status)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(endHour, 0))
+                .build();
+    }
+}
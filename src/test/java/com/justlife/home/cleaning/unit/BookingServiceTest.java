@@ -1,5 +1,6 @@
 package com.justlife.home.cleaning.unit;
 
+import com.justlife.home.cleaning.availability.AvailabilityIndex;
 import com.justlife.home.cleaning.exception.AvailabilityException;
 import com.justlife.home.cleaning.exception.BookingNotFoundException;
 import com.justlife.home.cleaning.exception.DifferentVehicleException;
@@ -19,12 +20,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -41,6 +45,12 @@ class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -70,16 +80,13 @@ class BookingServiceImplTest {
 
     @Test
     void testCreateBooking_Success() {
-        when(cleaningProfessionalRepository.findById(1L)).thenReturn(Optional.of(professional1));
-        when(cleaningProfessionalRepository.findById(2L)).thenReturn(Optional.of(professional2));
-
-        when(cleaningProfessionalRepository.findAllById(List.of(1L, 2L)))
+        when(cleaningProfessionalRepository.findAllWithVehicleByIdIn(List.of(1L, 2L)))
                 .thenReturn(Arrays.asList(professional1, professional2));
 
-        when(availabilityRepository.findByCleaningProfessionalIdAndDate(1L, startTime.toLocalDate()))
-                .thenReturn(getAvailableSlots());
-        when(availabilityRepository.findByCleaningProfessionalIdAndDate(2L, startTime.toLocalDate()))
-                .thenReturn(getAvailableSlots());
+        List<Availability> availabilities = new ArrayList<>(getAvailableSlots(professional1));
+        availabilities.addAll(getAvailableSlots(professional2));
+        when(availabilityRepository.findByProfessionalIdsAndDates(List.of(1L, 2L), Set.of(startTime.toLocalDate())))
+                .thenReturn(availabilities);
 
         Booking booking = new Booking();
         booking.setId(1L);
@@ -106,9 +113,8 @@ class BookingServiceImplTest {
 
         professional2.setVehicle(differentVehicle);
 
-        when(cleaningProfessionalRepository.findById(1L)).thenReturn(Optional.of(professional1));
-        when(cleaningProfessionalRepository.findById(2L)).thenReturn(Optional.of(professional2));
-        when(cleaningProfessionalRepository.findById(1L)).thenReturn(Optional.of(professional1));
+        when(cleaningProfessionalRepository.findAllWithVehicleByIdIn(List.of(1L, 2L)))
+                .thenReturn(Arrays.asList(professional1, professional2));
 
         assertThrows(DifferentVehicleException.class, () ->
                 bookingService.createBooking(startTime, 2, List.of(1L, 2L)));
@@ -118,7 +124,7 @@ class BookingServiceImplTest {
 
     @Test
     void testUpdateBooking_BookingNotFoundException() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithProfessionalsById(1L)).thenReturn(Optional.empty());
 
         assertThrows(BookingNotFoundException.class, () ->
                 bookingService.updateBooking(1L, startTime, 2));
@@ -134,7 +140,7 @@ class BookingServiceImplTest {
         booking.setEndDateTime(startTime.plusHours(2));
         booking.setCleaningProfessionals(List.of(professional1, professional2));
 
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithProfessionalsById(1L)).thenReturn(Optional.of(booking));
 
         assertThrows(AvailabilityException.class, () ->
                 bookingService.updateBooking(1L, startTime, 2));
@@ -142,8 +148,10 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
-    private List<Availability> getAvailableSlots() {
+    private List<Availability> getAvailableSlots(CleaningProfessional professional) {
         Availability availability = new Availability();
+        availability.setCleaningProfessional(professional);
+        availability.setDate(startTime.toLocalDate());
         availability.setStartTime(LocalTime.of(10, 0));
         availability.setEndTime(LocalTime.of(12, 0));
         availability.setStatus(AvailabilityStatus.AVAILABLE);
@@ -0,0 +1,148 @@
+package com.justlife.home.cleaning.unit;
+
+import com.justlife.home.cleaning.availability.DaySegments;
+import com.justlife.home.cleaning.model.Availability;
+import com.justlife.home.cleaning.model.CleaningProfessional;
+import com.justlife.home.cleaning.model.enums.AvailabilityStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaySegmentsTest {
+
+    private CleaningProfessional professional;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        professional = new CleaningProfessional();
+        professional.setId(1L);
+        date = LocalDate.of(2024, 8, 27);
+    }
+
+    @Test
+    void testBook_SplitsFreeWindow() {
+        Availability window = availability(1L, AvailabilityStatus.AVAILABLE, 8, 13);
+        DaySegments segments = new DaySegments(professional, date, List.of(window));
+
+        Availability booked = segments.book(LocalTime.of(9, 0), LocalTime.of(11, 0));
+
+        assertSame(window, booked);
+        assertEquals(List.of("08:00-09:00 AVAILABLE", "09:00-11:00 BOOKED", "11:00-13:00 AVAILABLE"), describe(segments));
+        assertEquals(2, segments.created().size());
+        assertFalse(segments.isFree(LocalTime.of(10, 0), LocalTime.of(12, 0)));
+        assertTrue(segments.isFree(LocalTime.of(11, 0), LocalTime.of(13, 0)));
+    }
+
+    @Test
+    void testRelease_MergesWithFreeNeighbours() {
+        DaySegments segments = new DaySegments(professional, date, List.of(
+                availability(1L, AvailabilityStatus.AVAILABLE, 8, 9),
+                availability(2L, AvailabilityStatus.BOOKED, 9, 11),
+                availability(3L, AvailabilityStatus.AVAILABLE, 11, 13)));
+
+        assertTrue(segments.release(LocalTime.of(9, 0), LocalTime.of(11, 0)));
+
+        assertEquals(List.of("08:00-13:00 AVAILABLE"), describe(segments));
+        assertEquals(2L, segments.availabilities().get(0).getId());
+        assertEquals(List.of(1L, 3L), segments.removed().stream().map(Availability::getId).toList());
+    }
+
+    @Test
+    void testRelease_KeepsAdjacentBookings() {
+        DaySegments segments = new DaySegments(professional, date, List.of(
+                availability(1L, AvailabilityStatus.BOOKED, 8, 10),
+                availability(2L, AvailabilityStatus.BOOKED, 10, 12)));
+
+        assertFalse(segments.release(LocalTime.of(8, 0), LocalTime.of(11, 0)));
+        assertTrue(segments.release(LocalTime.of(8, 0), LocalTime.of(10, 0)));
+
+        assertEquals(List.of("08:00-10:00 AVAILABLE", "10:00-12:00 BOOKED"), describe(segments));
+        assertTrue(segments.removed().isEmpty());
+    }
+
+    @Test
+    void testBookThenRelease_DropsUnsavedRows() {
+        DaySegments segments = new DaySegments(professional, date, List.of(availability(1L, AvailabilityStatus.AVAILABLE, 8, 13)));
+
+        segments.book(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        segments.release(LocalTime.of(10, 0), LocalTime.of(12, 0));
+
+        assertEquals(List.of("08:00-13:00 AVAILABLE"), describe(segments));
+        assertTrue(segments.created().isEmpty());
+        assertTrue(segments.removed().isEmpty());
+    }
+
+    @Test
+    void testIsFree_RejectsRangesOutsideOneWindow() {
+        DaySegments segments = new DaySegments(professional, date, List.of(
+                availability(1L, AvailabilityStatus.AVAILABLE, 8, 10),
+                availability(2L, AvailabilityStatus.AVAILABLE, 11, 13)));
+
+        assertFalse(segments.isFree(LocalTime.of(9, 0), LocalTime.of(12, 0)));
+        assertFalse(segments.isFree(LocalTime.of(7, 0), LocalTime.of(9, 0)));
+        assertFalse(segments.isFree(LocalTime.of(12, 0), LocalTime.of(11, 0)));
+        assertThrows(IllegalStateException.class, () -> segments.book(LocalTime.of(10, 0), LocalTime.of(11, 0)));
+    }
+
+    @Test
+    void testBook_MergesOneSlotRows() {
+        DaySegments segments = new DaySegments(professional, date, List.of(
+                slot(1L, LocalTime.of(8, 0)),
+                slot(2L, LocalTime.of(8, 30)),
+                slot(3L, LocalTime.of(9, 0)),
+                slot(4L, LocalTime.of(9, 30)),
+                slot(5L, LocalTime.of(10, 0))));
+
+        assertTrue(segments.isFree(LocalTime.of(8, 0), LocalTime.of(10, 30)));
+        assertFalse(segments.isFree(LocalTime.of(8, 0), LocalTime.of(11, 0)));
+
+        Availability booked = segments.book(LocalTime.of(8, 30), LocalTime.of(10, 0));
+
+        assertEquals(2L, booked.getId());
+        assertEquals(List.of("08:00-08:30 AVAILABLE", "08:30-10:00 BOOKED", "10:00-10:30 AVAILABLE"), describe(segments));
+        assertEquals(List.of(3L, 4L), segments.removed().stream().map(Availability::getId).toList());
+        assertTrue(segments.created().isEmpty());
+    }
+
+    @Test
+    void testBook_StopsAtBookedSlot() {
+        DaySegments segments = new DaySegments(professional, date, List.of(
+                slot(1L, LocalTime.of(8, 0)),
+                availability(2L, AvailabilityStatus.BOOKED, LocalTime.of(8, 30), LocalTime.of(9, 0)),
+                slot(3L, LocalTime.of(9, 0))));
+
+        assertFalse(segments.isFree(LocalTime.of(8, 0), LocalTime.of(9, 30)));
+        assertTrue(segments.isFree(LocalTime.of(9, 0), LocalTime.of(9, 30)));
+    }
+
+    private Availability slot(Long id, LocalTime startTime) {
+        return availability(id, AvailabilityStatus.AVAILABLE, startTime, startTime.plusMinutes(30));
+    }
+
+    private Availability availability(Long id, AvailabilityStatus status, int startHour, int endHour) {
+        return availability(id, status, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0));
+    }
+
+    private Availability availability(Long id, AvailabilityStatus status, LocalTime startTime, LocalTime endTime) {
+        return Availability.builder()
+                .id(id)
+                .cleaningProfessional(professional)
+                .date(date)
+                .status(status)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+
+    private List<String> describe(DaySegments segments) {
+        return segments.availabilities().stream()
+                .map(a -> a.getStartTime() + "-" + a.getEndTime() + " " + a.getStatus())
+                .toList();
+    }
+}
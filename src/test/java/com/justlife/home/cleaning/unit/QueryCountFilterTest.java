@@ -0,0 +1,51 @@
+package com.justlife.home.cleaning.unit;
+
+import com.justlife.home.cleaning.metrics.QueryCountFilter;
+import com.justlife.home.cleaning.metrics.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCountFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryCountFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new QueryCountFilter(meterRegistry, 1);
+    }
+
+    @Test
+    void testDoFilter_RecordsStatementsPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings/availability");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/bookings/availability");
+        QueryCounter inspector = new QueryCounter();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        });
+
+        DistributionSummary summary = meterRegistry.get("http.server.requests.queries")
+                .tag("method", "GET")
+                .tag("uri", "/api/bookings/availability")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void testInspect_IgnoresStatementsOutsideRequests() {
+        new QueryCounter().inspect("select 1");
+
+        assertEquals(0, QueryCounter.stop());
+    }
+}
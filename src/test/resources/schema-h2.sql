@@ -20,14 +20,19 @@ CREATE TABLE availability (
                               status VARCHAR(50),  -- ENUM simulated as VARCHAR in H2
                               start_time TIME,
                               end_time TIME,
+                              version BIGINT DEFAULT 0 NOT NULL,
                               FOREIGN KEY (cleaning_professional_id) REFERENCES cleaning_professional(id)
 );
 
+CREATE INDEX idx_availability_professional_date ON availability (cleaning_professional_id, date, status, start_time, end_time);
+CREATE INDEX idx_availability_date_status ON availability (date, status, cleaning_professional_id, start_time);
+
 -- Booking table
 CREATE TABLE booking (
                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
                          start_date_time TIMESTAMP,
-                         end_date_time TIMESTAMP
+                         end_date_time TIMESTAMP,
+                         version BIGINT DEFAULT 0 NOT NULL
 );
 
 -- Booking_Professional Join table
@@ -38,3 +43,56 @@ CREATE TABLE booking_professional (
                                       FOREIGN KEY (professional_id) REFERENCES cleaning_professional(id),
                                       PRIMARY KEY (booking_id, professional_id)
 );
+
+-- Precomputed free intervals per professional and day
+CREATE TABLE availability_summary (
+                                      id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                      date DATE,
+                                      professional_id BIGINT,
+                                      name VARCHAR(255),
+                                      vehicle_id BIGINT,
+                                      free_intervals VARCHAR(1000),
+                                      version BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE UNIQUE INDEX idx_availability_summary_date_professional ON availability_summary (date, professional_id);
+
+-- Transactional outbox of booking changes
+CREATE TABLE booking_event (
+                               id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                               booking_id BIGINT,
+                               type VARCHAR(255),
+                               payload VARCHAR(2000),
+                               created_at TIMESTAMP,
+                               published_at TIMESTAMP
+);
+
+CREATE INDEX idx_booking_event_published_id ON booking_event (published_at, id);
+
+-- Archived history, moved out of availability and booking by HistoryArchiver
+CREATE TABLE availability_archive (
+                                      id BIGINT PRIMARY KEY,
+                                      cleaning_professional_id BIGINT,
+                                      date DATE NOT NULL,
+                                      status VARCHAR(50),
+                                      start_time TIME,
+                                      end_time TIME,
+                                      version BIGINT NOT NULL
+);
+
+CREATE INDEX idx_availability_archive_date ON availability_archive (date);
+
+CREATE TABLE booking_archive (
+                                 id BIGINT PRIMARY KEY,
+                                 start_date_time TIMESTAMP NOT NULL,
+                                 end_date_time TIMESTAMP,
+                                 version BIGINT NOT NULL
+);
+
+CREATE INDEX idx_booking_archive_start ON booking_archive (start_date_time);
+
+CREATE TABLE booking_professional_archive (
+                                              booking_id BIGINT,
+                                              professional_id BIGINT,
+                                              PRIMARY KEY (booking_id, professional_id)
+);